@@ -3,17 +3,24 @@ package org.example.logging.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+
+import java.time.Instant;
 import java.util.UUID;
 
+/**
+ * Audit record. The table is range-partitioned by day on date_time (see schema.sql),
+ * and ids are time-ordered UUIDv7 values assigned on ingestion.
+ */
 @Entity(name = "log_dump")
+@Getter
 @NoArgsConstructor
 @Builder
 @AllArgsConstructor
 public class logDump {
 
     @Id
-    @GeneratedValue
     private UUID id;
 
     @Column(columnDefinition = "TEXT")
@@ -21,6 +28,11 @@ public class logDump {
 
     private String messageType;
 
-    private String dateTime;
+    @Column(nullable = false)
+    private Instant dateTime;
+
+    /** Trace of the request that produced the record, if it was traced */
+    @Column(length = 32)
+    private String traceId;
 
 }
@@ -0,0 +1,13 @@
+package org.example.logging.repository;
+
+import org.example.logging.model.logDump;
+
+import java.util.List;
+
+public interface logBatchRepository {
+
+    /**
+     * Inserts the logs with batched JDBC statements, bypassing the JPA persistence context.
+     */
+    void insertAll(List<logDump> logs);
+}
@@ -0,0 +1,33 @@
+package org.example.logging.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.example.logging.model.logDump;
+import org.example.logging.util.UuidV7;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.ZoneOffset;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class logBatchRepositoryImpl implements logBatchRepository {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO log_dump (id, message, message_type, date_time, trace_id) VALUES (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${logging.ingest.jdbc-batch-size:500}")
+    private int batchSize;
+
+    @Override
+    public void insertAll(List<logDump> logs) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, logs, batchSize, (ps, log) -> {
+            ps.setObject(1, log.getId() != null ? log.getId() : UuidV7.generate(log.getDateTime().toEpochMilli()));
+            ps.setString(2, log.getMessage());
+            ps.setString(3, log.getMessageType());
+            ps.setObject(4, log.getDateTime().atOffset(ZoneOffset.UTC));
+            ps.setString(5, log.getTraceId());
+        });
+    }
+}
@@ -7,5 +7,5 @@ import org.springframework.stereotype.Repository;
 import java.util.UUID;
 
 @Repository
-public interface logRepository extends JpaRepository<logDump, UUID> {
+public interface logRepository extends JpaRepository<logDump, UUID>, logBatchRepository {
 }
\ No newline at end of file
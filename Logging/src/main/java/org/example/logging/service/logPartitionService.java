@@ -0,0 +1,150 @@
+package org.example.logging.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Maintains the daily range partitions of log_dump: creates the partitions for the next
+ * few days and drops whole partitions once they are older than the retention period,
+ * which is far cheaper than deleting old rows.
+ *
+ * <p>The log listener does not start on its own while partitioning is enabled: it is started
+ * here once today's partition exists, so the first records after a deploy do not land in
+ * log_dump_default. Rows that still end up there (clock skew, a missed maintenance run) are
+ * moved into their daily partition when it is created, and the rest are reported as the
+ * {@code logging.partition.default.rows} gauge.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "logging.partition.enabled", havingValue = "true", matchIfMissing = true)
+public class logPartitionService implements MeterBinder {
+
+    private static final String PARTITION_PREFIX = "log_dump_p";
+    private static final String DEFAULT_PARTITION = "log_dump_default";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaListenerEndpointRegistry listenerRegistry;
+    private final AtomicLong defaultPartitionRows = new AtomicLong();
+
+    @Value("${logging.partition.days-ahead:3}")
+    private int daysAhead;
+
+    @Value("${logging.partition.retention-days:30}")
+    private int retentionDays;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startIngestion() {
+        try {
+            maintainPartitions();
+        } finally {
+            // Ingest even if maintenance failed; the default partition catches the rows meanwhile
+            MessageListenerContainer container = listenerRegistry.getListenerContainer(logService.LISTENER_ID);
+            if (container != null && !container.isRunning()) {
+                container.start();
+            }
+        }
+    }
+
+    @Scheduled(cron = "${logging.partition.cron:0 5 0 * * *}", zone = "UTC")
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        for (int i = 0; i <= daysAhead; i++) {
+            createPartition(today.plusDays(i));
+        }
+        dropPartitionsBefore(today.minusDays(retentionDays));
+        checkDefaultPartition(today.minusDays(retentionDays));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("logging.partition.default.rows", defaultPartitionRows, AtomicLong::get)
+                .description("Rows in log_dump_default, outside every daily partition")
+                .register(registry);
+    }
+
+    private void createPartition(LocalDate day) {
+        String name = PARTITION_PREFIX + day.format(SUFFIX_FORMAT);
+        String from = "'" + day + " 00:00:00+00'";
+        String to = "'" + day.plusDays(1) + " 00:00:00+00'";
+        try {
+            // Postgres refuses to create the partition while the default one holds rows for its
+            // range, so those rows are moved out and back in within the same transaction
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jdbcTemplate.queryForObject("SELECT to_regclass('" + name + "') IS NOT NULL", Boolean.class)) {
+                    return;
+                }
+                jdbcTemplate.execute("CREATE TEMP TABLE log_dump_moved (LIKE log_dump) ON COMMIT DROP");
+                int moved = jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION +
+                        " WHERE date_time >= " + from + " AND date_time < " + to + " RETURNING *) " +
+                        "INSERT INTO log_dump_moved SELECT * FROM moved");
+                jdbcTemplate.execute("CREATE TABLE " + name + " PARTITION OF log_dump " +
+                        "FOR VALUES FROM (" + from + ") TO (" + to + ")");
+                if (moved > 0) {
+                    jdbcTemplate.update("INSERT INTO log_dump SELECT * FROM log_dump_moved");
+                    log.warn("Moved {} rows from {} into new log partition {}", moved, DEFAULT_PARTITION, name);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Could not create log partition {}: {}", name, e.getMessage());
+        }
+    }
+
+    private void checkDefaultPartition(LocalDate cutoff) {
+        // Rows past the retention period would never be dropped with a partition
+        int purged = jdbcTemplate.update("DELETE FROM " + DEFAULT_PARTITION +
+                " WHERE date_time < '" + cutoff + " 00:00:00+00'");
+        if (purged > 0) {
+            log.info("Purged {} rows older than {} days from {}", purged, retentionDays, DEFAULT_PARTITION);
+        }
+
+        long remaining = jdbcTemplate.queryForObject("SELECT count(*) FROM " + DEFAULT_PARTITION, Long.class);
+        defaultPartitionRows.set(remaining);
+        if (remaining > 0) {
+            log.warn("{} rows in {} fall outside every daily partition", remaining, DEFAULT_PARTITION);
+        }
+    }
+
+    private void dropPartitionsBefore(LocalDate cutoff) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'log_dump' AND c.relname LIKE '" + PARTITION_PREFIX + "%'",
+                String.class);
+
+        for (String name : partitions) {
+            LocalDate day;
+            try {
+                day = LocalDate.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX_FORMAT);
+            } catch (Exception e) {
+                continue;
+            }
+            if (day.isBefore(cutoff)) {
+                jdbcTemplate.execute("DROP TABLE IF EXISTS " + name);
+                log.info("Dropped log partition {} (older than {} days)", name, retentionDays);
+            }
+        }
+    }
+}
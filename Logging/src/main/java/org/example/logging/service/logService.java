@@ -4,43 +4,64 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.example.logging.model.logDump;
 import org.example.logging.repository.logRepository;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class logService {
 
+    static final String LISTENER_ID = "log-ingest";
+
     private final logRepository logRepository;
     private final ObjectMapper objectMapper;
 
-    @KafkaListener(topics = "logging-topic", groupId = "logging-group")
-    public void consume(String message) {
+    /**
+     * Consumes a whole poll at once. Records are parsed in parallel and bulk-inserted;
+     * the container commits the offsets only after this method returns, so a failed
+     * insert leaves the batch to be redelivered.
+     *
+     * <p>With partitioning enabled the listener is started by logPartitionService, after
+     * today's partition has been created.
+     */
+    @KafkaListener(id = LISTENER_ID, topics = "logging-topic", groupId = "logging-group", batch = "true",
+            autoStartup = "#{!${logging.partition.enabled:true}}")
+    public void consume(List<ConsumerRecord<String, String>> records) {
+        List<logDump> logs = records.parallelStream()
+                .map(this::parse)
+                .filter(Objects::nonNull)
+                .toList();
+
+        logRepository.insertAll(logs);
+        log.debug("Persisted {} of {} log records", logs.size(), records.size());
+    }
+
+    private logDump parse(ConsumerRecord<String, String> record) {
         try {
-            log.info("Received message: {}", message);
             // Parse the JSON message
-            JsonNode jsonNode = objectMapper.readTree(message);
-
-            // Extract fields
-            String logMessage = jsonNode.get("message").asText();
-            String messageType = jsonNode.get("messageType").asText();
-            String dateTime = jsonNode.get("dateTime").asText();
-
-            // Create and save logDump entity
-            logDump log = logDump.builder()
-                    .id(null)
-                    .message(logMessage)
-                    .messageType(messageType)
-                    .dateTime(dateTime)
-                    .build();
+            JsonNode jsonNode = objectMapper.readTree(record.value());
+            JsonNode message = jsonNode.get("message");
+            JsonNode traceId = jsonNode.get("traceId");
 
-            logRepository.save(log);
+            return logDump.builder()
+                    // Plain-text messages arrive as strings, request/response payloads as nested JSON
+                    .message(message.isTextual() ? message.asText() : message.toString())
+                    .messageType(jsonNode.get("messageType").asText())
+                    .dateTime(Instant.parse(jsonNode.get("dateTime").asText()))
+                    .traceId(traceId != null && !traceId.isNull() ? traceId.asText() : null)
+                    .build();
         } catch (Exception e) {
-            // Handle parsing or database errors
-            e.printStackTrace();
+            // A malformed record must not block the rest of the batch
+            log.warn("Skipping malformed log record at offset {}: {}", record.offset(), e.getMessage());
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package org.example.logging.util;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Time-ordered UUIDs (RFC 9562 version 7): 48-bit Unix epoch milliseconds followed by random bits.
+ * Keys generated this way sort by creation time, so inserts append to the right edge of the
+ * primary-key index instead of landing on random pages.
+ */
+public final class UuidV7 {
+
+    private UuidV7() {
+    }
+
+    public static UUID generate(long epochMillis) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long mostSigBits = (epochMillis << 16) | 0x7000L | (random.nextLong() & 0x0FFFL);
+        long leastSigBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
+    }
+}
@@ -0,0 +1,16 @@
+-- Audit records, range-partitioned by day. Daily partitions are created ahead of time and
+-- dropped after the retention period by logPartitionService; the default partition only
+-- catches rows outside the pre-created range.
+CREATE TABLE IF NOT EXISTS log_dump (
+    id           UUID         NOT NULL,
+    date_time    TIMESTAMPTZ  NOT NULL,
+    message_type VARCHAR(255),
+    message      TEXT,
+    PRIMARY KEY (date_time, id)
+) PARTITION BY RANGE (date_time);
+
+CREATE TABLE IF NOT EXISTS log_dump_default PARTITION OF log_dump DEFAULT;
+
+-- Trace id of the originating request, to pull every record of one request back together
+ALTER TABLE log_dump ADD COLUMN IF NOT EXISTS trace_id VARCHAR(32);
+CREATE INDEX IF NOT EXISTS idx_log_dump_trace_id ON log_dump (trace_id);
@@ -0,0 +1,68 @@
+package org.example.logging.service;
+
+import org.example.logging.repository.logRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Measures end-to-end ingestion throughput (records/sec) from Kafka to the database,
+ * against an embedded broker and an in-memory H2 database in PostgreSQL mode.
+ * Run with {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(topics = "logging-topic", partitions = 4)
+@SpringBootTest(properties = {
+		"spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+		"spring.datasource.url=jdbc:h2:mem:loggingdb;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.datasource.driver-class-name=org.h2.Driver",
+		"spring.datasource.username=sa",
+		"spring.datasource.password=",
+		"spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.show-sql=false",
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.sql.init.mode=never",
+		"logging.partition.enabled=false",
+		"logging.level.org.example.logging=INFO"
+})
+class logIngestionBenchmarkTests {
+
+	private static final int RECORDS = 200_000;
+	private static final long TIMEOUT_MILLIS = 120_000;
+
+	@Autowired
+	private KafkaTemplate<String, String> kafkaTemplate;
+
+	@Autowired
+	private logRepository logRepository;
+
+	@Test
+	void ingestionThroughput() throws InterruptedException {
+		String dateTime = Instant.now().toString();
+		long start = System.nanoTime();
+		for (int i = 0; i < RECORDS; i++) {
+			kafkaTemplate.send("logging-topic",
+					"{\"message\":{\"seq\":" + i + "},\"messageType\":\"Request\",\"dateTime\":\"" + dateTime + "\"}");
+		}
+		kafkaTemplate.flush();
+
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		long persisted;
+		while ((persisted = logRepository.count()) < RECORDS && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		double seconds = (System.nanoTime() - start) / 1e9;
+
+		System.out.printf("Ingested %d records in %.2f s: %.0f records/sec%n", persisted, seconds, persisted / seconds);
+		assertEquals(RECORDS, persisted);
+	}
+
+}
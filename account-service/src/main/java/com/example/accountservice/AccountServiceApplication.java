@@ -1,11 +1,17 @@
 package com.example.accountservice;
 
+import com.example.userservice.config.ResilienceConfig;
+import com.example.userservice.config.TracingConfig;
+import com.example.userservice.config.WebClientConfig;
+import com.example.userservice.service.AuditLogPublisher;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 
 @EnableScheduling
+@Import({AuditLogPublisher.class, TracingConfig.class, WebClientConfig.class, ResilienceConfig.class})
 @SpringBootApplication(exclude = {SecurityAutoConfiguration.class})
 public class AccountServiceApplication {
 
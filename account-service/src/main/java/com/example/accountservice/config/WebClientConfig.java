@@ -1,14 +0,0 @@
-package com.example.accountservice.config;
-
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.web.reactive.function.client.WebClient;
-
-@Configuration
-public class WebClientConfig {
-    
-    @Bean
-    public WebClient webClient() {
-        return WebClient.builder().build();
-    }
-} 
\ No newline at end of file
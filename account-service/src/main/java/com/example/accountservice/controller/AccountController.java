@@ -2,6 +2,7 @@ package com.example.accountservice.controller;
 
 import com.example.accountservice.dto.AccountCreationRequest;
 import com.example.accountservice.dto.AccountResponse;
+import com.example.accountservice.dto.BatchTransferRequest;
 import com.example.accountservice.dto.TransferRequest;
 import com.example.accountservice.dto.TransferResponse;
 import com.example.accountservice.service.AccountService;
@@ -104,4 +105,23 @@ public class AccountController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
     }
-} 
\ No newline at end of file
+    
+    @PutMapping("/transfer/batch")
+    public ResponseEntity<?> updateAccountBalances(@Valid @RequestBody BatchTransferRequest request) {
+        try {
+            accountService.sendLog(request, "Request");
+            List<TransferResponse> response = accountService.updateAccountBalances(request.getTransfers());
+            accountService.sendLog(response, "Response");
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            log.error("Batch account balance update failed: {}", e.getMessage());
+            ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .error("Bad Request")
+                    .message(e.getMessage())
+                    .build();
+            accountService.sendLog(response, "Response");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.accountservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Transfer submitted by the Transaction Service through its outbox, consumed from the
+ * {@code transfer-commands} topic. The transaction ID is the idempotency key.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class TransferCommand {
+    
+    public static final String TOPIC = "transfer-commands";
+    
+    private UUID transactionId;
+    private UUID fromAccountId;
+    private UUID toAccountId;
+    private BigDecimal amount;
+}
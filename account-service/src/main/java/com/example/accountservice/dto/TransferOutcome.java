@@ -0,0 +1,26 @@
+package com.example.accountservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Result of applying a {@link TransferCommand}, published on the {@code transfer-outcomes} topic.
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransferOutcome {
+    
+    public static final String TOPIC = "transfer-outcomes";
+    
+    private UUID transactionId;
+    private Boolean success;
+    private String message;
+}
@@ -23,4 +23,15 @@ public class TransferRequest {
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.0", inclusive = false, message = "Amount must be greater than 0")
     private BigDecimal amount;
+    
+    /**
+     * Transaction Service transaction this transfer belongs to. When set, the transfer is
+     * applied at most once: a batch retried after an unknown outcome skips the items that
+     * were already applied or rejected.
+     */
+    private UUID transactionId;
+    
+    public TransferRequest(UUID fromAccountId, UUID toAccountId, BigDecimal amount) {
+        this(fromAccountId, toAccountId, amount, null);
+    }
 } 
\ No newline at end of file
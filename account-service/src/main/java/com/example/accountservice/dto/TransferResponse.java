@@ -1,14 +1,21 @@
 package com.example.accountservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @Builder
 @AllArgsConstructor
 @NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class TransferResponse {
+    private Boolean success;
     private String message;
+    private BigDecimal fromAccountBalance;
+    private BigDecimal toAccountBalance;
 }
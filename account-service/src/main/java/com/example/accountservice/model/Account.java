@@ -15,7 +15,9 @@ import com.example.accountservice.enums.AccountType;
 import com.example.accountservice.enums.AccountStatus;
 
 @Entity
-@Table(name = "accounts")
+@Table(name = "accounts", indexes = {
+        @Index(name = "idx_accounts_status_last_transaction", columnList = "status, last_transaction_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,33 @@
+package com.example.accountservice.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Transfer command that has already been applied (or rejected). Written in the same
+ * transaction as the balance updates, so a redelivered command is recognised and not applied twice.
+ */
+@Entity
+@Table(name = "processed_transfers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessedTransfer {
+    
+    @Id
+    private UUID transactionId;
+    
+    @Column(nullable = false)
+    private boolean success;
+    
+    @Column
+    private String message;
+    
+    @Column(nullable = false)
+    private LocalDateTime processedAt;
+}
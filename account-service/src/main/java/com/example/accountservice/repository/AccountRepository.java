@@ -2,10 +2,14 @@ package com.example.accountservice.repository;
 
 import com.example.accountservice.model.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,8 +18,40 @@ public interface AccountRepository extends JpaRepository<Account, UUID> {
     
     List<Account> findByUserId(UUID userId);
     
-    @Query("SELECT a FROM Account a WHERE a.status = 'ACTIVE' AND a.lastTransactionAt < ?1")
-    List<Account> findStaleAccounts(LocalDateTime threshold);
+    /**
+     * Locks the given accounts for the rest of the transaction, in account_id order.
+     * @return the IDs of the accounts that exist
+     */
+    @Query(value = "SELECT account_id FROM accounts WHERE account_id IN (:accountIds) ORDER BY account_id FOR UPDATE",
+            nativeQuery = true)
+    List<UUID> lockExistingIds(@Param("accountIds") Collection<UUID> accountIds);
     
-    boolean existsByAccountNumber(String accountNumber);
+    /**
+     * Debits the account only if it holds enough funds.
+     * @return the number of updated rows, 0 if the account is missing or the balance is too low
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance - ?2, a.lastTransactionAt = ?3 " +
+           "WHERE a.accountId = ?1 AND a.balance >= ?2")
+    int debit(UUID accountId, BigDecimal amount, LocalDateTime transactionAt);
+    
+    /**
+     * Credits the account.
+     * @return the number of updated rows, 0 if the account is missing
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Account a SET a.balance = a.balance + ?2, a.lastTransactionAt = ?3 WHERE a.accountId = ?1")
+    int credit(UUID accountId, BigDecimal amount, LocalDateTime transactionAt);
+    
+    /**
+     * Inactivates at most {@code batchSize} stale accounts in one statement. Rows locked by
+     * in-flight transfers are skipped and picked up by a later chunk or run.
+     * @return the number of inactivated accounts
+     */
+    @Modifying
+    @Query(value = "UPDATE accounts SET status = 'INACTIVE' WHERE account_id IN (" +
+            "SELECT account_id FROM accounts WHERE status = 'ACTIVE' AND last_transaction_at < :threshold " +
+            "LIMIT :batchSize FOR UPDATE SKIP LOCKED)",
+            nativeQuery = true)
+    int inactivateStaleAccounts(@Param("threshold") LocalDateTime threshold, @Param("batchSize") int batchSize);
 } 
\ No newline at end of file
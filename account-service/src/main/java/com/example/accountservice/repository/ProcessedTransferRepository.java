@@ -0,0 +1,37 @@
+package com.example.accountservice.repository;
+
+import com.example.accountservice.model.ProcessedTransfer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface ProcessedTransferRepository extends JpaRepository<ProcessedTransfer, UUID> {
+    
+    /**
+     * Records a processed transfer unless one is already recorded for the transaction.
+     * A concurrent duplicate blocks on the primary key until the first insert commits or rolls back.
+     * @return 1 if the row was inserted, 0 if the transaction was already processed
+     */
+    @Modifying
+    @Query(value = "INSERT INTO processed_transfers (transaction_id, success, message, processed_at) " +
+            "VALUES (:transactionId, :success, :message, :processedAt) ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("transactionId") UUID transactionId,
+                       @Param("success") boolean success,
+                       @Param("message") String message,
+                       @Param("processedAt") LocalDateTime processedAt);
+    
+    /**
+     * Turns a transfer recorded as applied into a rejected one, for an item whose record was
+     * inserted before the balance updates turned out not to apply.
+     */
+    @Modifying
+    @Query("UPDATE ProcessedTransfer p SET p.success = false, p.message = ?2 WHERE p.transactionId = ?1")
+    int markRejected(UUID transactionId, String message);
+}
@@ -0,0 +1,119 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.AccountResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-process read-through cache of {@link AccountResponse} by account id, bounded in size and
+ * time. Writers evict the accounts they change once their transaction has committed, so a
+ * read on this node never returns a balance older than the last committed transfer.
+ * With {@code accounts.cache.invalidation.enabled} the evictions are also broadcast on Kafka
+ * to the other replicas (see {@link AccountCacheInvalidationListener}).
+ */
+@Component
+@Slf4j
+public class AccountCache implements MeterBinder {
+    
+    static final String INVALIDATION_TOPIC = "account-cache-invalidation";
+    static final String INVALIDATE_ALL = "*";
+    
+    private final Cache<UUID, AccountResponse> cache;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final boolean broadcast;
+    
+    public AccountCache(KafkaTemplate<String, String> kafkaTemplate,
+                        @Value("${accounts.cache.max-size:100000}") long maxSize,
+                        @Value("${accounts.cache.ttl:30s}") Duration ttl,
+                        @Value("${accounts.cache.invalidation.enabled:false}") boolean broadcast) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.broadcast = broadcast;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * Returns the cached account, loading it on a miss. A loader exception is propagated and
+     * nothing is cached.
+     */
+    public AccountResponse get(UUID accountId, Function<UUID, AccountResponse> loader) {
+        return cache.get(accountId, loader);
+    }
+    
+    /**
+     * Evicts the accounts now and again after the current transaction commits, so a read that
+     * loaded the pre-commit row in between cannot stay cached. Outside a transaction the
+     * accounts are evicted immediately.
+     */
+    public void evictAfterCommit(Collection<UUID> accountIds) {
+        cache.invalidateAll(accountIds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<UUID> ids = List.copyOf(accountIds);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidateAll(ids);
+                    publish(ids.stream().map(UUID::toString).collect(Collectors.joining(",")));
+                }
+            });
+        } else {
+            publish(accountIds.stream().map(UUID::toString).collect(Collectors.joining(",")));
+        }
+    }
+    
+    /**
+     * Drops every cached account, e.g. after a bulk status change.
+     */
+    public void evictAll() {
+        cache.invalidateAll();
+        publish(INVALIDATE_ALL);
+    }
+    
+    /**
+     * Applies an invalidation received from another replica; never re-broadcast.
+     */
+    void applyRemoteInvalidation(String message) {
+        if (INVALIDATE_ALL.equals(message)) {
+            cache.invalidateAll();
+            return;
+        }
+        for (String id : message.split(",")) {
+            cache.invalidate(UUID.fromString(id));
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "accounts");
+    }
+    
+    private void publish(String message) {
+        if (!broadcast || message.isEmpty()) {
+            return;
+        }
+        kafkaTemplate.send(INVALIDATION_TOPIC, message).whenComplete((result, e) -> {
+            if (e != null) {
+                log.warn("Failed to broadcast account cache invalidation: {}", e.getMessage());
+            }
+        });
+    }
+}
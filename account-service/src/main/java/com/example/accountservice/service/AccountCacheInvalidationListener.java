@@ -0,0 +1,28 @@
+package com.example.accountservice.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies account cache invalidations broadcast by the other account-service replicas.
+ * Every replica consumes with its own group id so each one sees every invalidation.
+ */
+@Component
+@ConditionalOnProperty(name = "accounts.cache.invalidation.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class AccountCacheInvalidationListener {
+    
+    private final AccountCache accountCache;
+    
+    @KafkaListener(topics = AccountCache.INVALIDATION_TOPIC,
+            groupId = "account-cache-#{T(java.util.UUID).randomUUID()}",
+            properties = "auto.offset.reset=latest")
+    public void onInvalidation(String message) {
+        log.debug("Applying account cache invalidation: {}", message);
+        accountCache.applyRemoteInvalidation(message);
+    }
+}
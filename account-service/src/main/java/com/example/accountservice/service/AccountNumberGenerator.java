@@ -0,0 +1,86 @@
+package com.example.accountservice.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Generates unique 10-digit account numbers: a 9-digit serial followed by a Luhn check digit.
+ * Serials are handed out in blocks from the account_number_seq sequence (see db/account-schema.sql), so
+ * instances never collide and only one database call is made per {@value #BLOCK_SIZE} accounts.
+ * Within a block numbers come from a lock-free counter.
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberGenerator {
+    
+    /** Must match the INCREMENT BY of account_number_seq */
+    static final int BLOCK_SIZE = 1000;
+    private static final long MAX_SERIAL = 999_999_999L;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock refillLock = new ReentrantLock();
+    private volatile Block block = new Block(0, 0);
+    
+    public String next() {
+        while (true) {
+            Block current = block;
+            long serial = current.next.getAndIncrement();
+            if (serial < current.end) {
+                return format(serial);
+            }
+            // Block exhausted: one thread fetches the next one, the others retry on it
+            refillLock.lock();
+            try {
+                if (block == current) {
+                    block = allocateBlock();
+                }
+            } finally {
+                refillLock.unlock();
+            }
+        }
+    }
+    
+    private Block allocateBlock() {
+        Long start = jdbcTemplate.queryForObject("SELECT nextval('account_number_seq')", Long.class);
+        if (start == null || start + BLOCK_SIZE - 1 > MAX_SERIAL) {
+            throw new IllegalStateException("Account number range exhausted");
+        }
+        return new Block(start, start + BLOCK_SIZE);
+    }
+    
+    static String format(long serial) {
+        String payload = String.format("%09d", serial);
+        return payload + luhnCheckDigit(payload);
+    }
+    
+    static int luhnCheckDigit(String payload) {
+        int sum = 0;
+        boolean doubleDigit = true;
+        for (int i = payload.length() - 1; i >= 0; i--) {
+            int digit = payload.charAt(i) - '0';
+            if (doubleDigit) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubleDigit = !doubleDigit;
+        }
+        return (10 - sum % 10) % 10;
+    }
+    
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+        
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -2,23 +2,32 @@ package com.example.accountservice.service;
 
 import com.example.accountservice.dto.AccountCreationRequest;
 import com.example.accountservice.dto.AccountResponse;
+import com.example.accountservice.dto.TransferCommand;
+import com.example.accountservice.dto.TransferOutcome;
 import com.example.accountservice.dto.TransferRequest;
 import com.example.accountservice.dto.TransferResponse;
 import com.example.accountservice.model.Account;
+import com.example.accountservice.model.ProcessedTransfer;
 import com.example.accountservice.enums.AccountStatus;
 import com.example.accountservice.repository.AccountRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.accountservice.repository.ProcessedTransferRepository;
+import com.example.userservice.service.AuditLogPublisher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.time.Instant;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -27,10 +36,29 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AccountService {
     
+    /**
+     * Order in which account rows are locked: the database's UUID order (unsigned, byte by byte),
+     * which differs from {@link UUID#compareTo}. Batches lock with ORDER BY account_id, so single
+     * transfers must use the same order.
+     */
+    static final Comparator<UUID> LOCK_ORDER = (a, b) -> {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    };
+    
+    private static final String TRANSFER_APPLIED = "Account balances updated successfully";
+    
     private final AccountRepository accountRepository;
+    private final ProcessedTransferRepository processedTransferRepository;
     private final UserValidationService userValidationService;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final AuditLogPublisher auditLogPublisher;
+    private final AccountCache accountCache;
+    private final MeterRegistry meterRegistry;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${accounts.transfer.batch.chunk-size:100}")
+    private int batchChunkSize;
 
 
     public AccountResponse createAccount(AccountCreationRequest request) {
@@ -41,7 +69,7 @@ public class AccountService {
         }
         
         // Generate unique account number
-        String accountNumber = generateAccountNumber();
+        String accountNumber = accountNumberGenerator.next();
         
         Account account = new Account();
         account.setUserId(request.getUserId());
@@ -65,16 +93,18 @@ public class AccountService {
     public AccountResponse getAccount(UUID accountId) {
         log.info("Fetching account: {}", accountId);
         
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account with ID " + accountId + " not found."));
-        
-        return AccountResponse.builder()
-                .accountId(account.getAccountId())
-                .accountNumber(account.getAccountNumber())
-                .accountType(account.getAccountType())
-                .balance(account.getBalance())
-                .status(account.getStatus())
-                .build();
+        return accountCache.get(accountId, id -> {
+            Account account = accountRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Account with ID " + id + " not found."));
+            
+            return AccountResponse.builder()
+                    .accountId(account.getAccountId())
+                    .accountNumber(account.getAccountNumber())
+                    .accountType(account.getAccountType())
+                    .balance(account.getBalance())
+                    .status(account.getStatus())
+                    .build();
+        });
     }
     
     public List<AccountResponse> getUserAccounts(UUID userId) {
@@ -103,15 +133,25 @@ public class AccountService {
     
     @Transactional
     public TransferResponse updateAccountBalance(TransferRequest request) {
+        return balanceUpdateTimer("api").record(() -> applyTransfer(request));
+    }
+    
+    /**
+     * Timer of the single-transfer balance update. Both callers record it explicitly: the outbox
+     * path runs inside applyTransferCommand, where an annotation on updateAccountBalance would be
+     * bypassed by the self-call.
+     */
+    private Timer balanceUpdateTimer(String source) {
+        return Timer.builder("bank.account.balance.update")
+                .tag("source", source)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private TransferResponse applyTransfer(TransferRequest request) {
         log.info("Updating account balances for transfer: {} -> {}, amount: {}", 
                 request.getFromAccountId(), request.getToAccountId(), request.getAmount());
         
-        Account fromAccount = accountRepository.findById(request.getFromAccountId())
-                .orElseThrow(() -> new RuntimeException("From account not found"));
-        
-        Account toAccount = accountRepository.findById(request.getToAccountId())
-                .orElseThrow(() -> new RuntimeException("To account not found"));
-        
         // Check if accounts are active
         // if (fromAccount.getStatus() != AccountStatus.ACTIVE) {
         //     throw new RuntimeException("From account is not active");
@@ -121,74 +161,202 @@ public class AccountService {
         //     throw new RuntimeException("To account is not active");
         // }
         
-        // Check sufficient balance
-        if (fromAccount.getBalance().compareTo(request.getAmount()) < 0) {
-            throw new RuntimeException("Insufficient funds");
+        // Apply the debit and the credit as single-statement conditional updates. The rows are
+        // touched in a fixed order (lower UUID first) so that concurrent transfers on the same
+        // accounts take their row locks in the same order and never deadlock each other.
+        LocalDateTime now = LocalDateTime.now();
+        if (LOCK_ORDER.compare(request.getFromAccountId(), request.getToAccountId()) <= 0) {
+            debit(request.getFromAccountId(), request.getAmount(), now);
+            credit(request.getToAccountId(), request.getAmount(), now);
+        } else {
+            credit(request.getToAccountId(), request.getAmount(), now);
+            debit(request.getFromAccountId(), request.getAmount(), now);
         }
+        accountCache.evictAfterCommit(List.of(request.getFromAccountId(), request.getToAccountId()));
         
-        // Update balances
-        fromAccount.setBalance(fromAccount.getBalance().subtract(request.getAmount()));
-        toAccount.setBalance(toAccount.getBalance().add(request.getAmount()));
-        
-        accountRepository.save(fromAccount);
-        accountRepository.save(toAccount);
+        Map<UUID, BigDecimal> balances = accountRepository
+                .findAllById(List.of(request.getFromAccountId(), request.getToAccountId()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountId, Account::getBalance));
         
         log.info("Account balances updated successfully");
 
         return TransferResponse.builder()
+                .success(true)
                 .message("Account balances updated successfully")
+                .fromAccountBalance(balances.get(request.getFromAccountId()))
+                .toAccountBalance(balances.get(request.getToAccountId()))
                 .build();
     }
     
-    @Scheduled(fixedRate = 3600000) // Every hour
-    @Transactional
-    public void inactivateStaleAccounts() {
-        log.info("Starting scheduled job to inactivate stale accounts");
+    /**
+     * Applies a batch of transfers and reports a result per item, in request order. The batch is
+     * committed in chunks of {@code batchChunkSize} items, so row locks are held for one chunk at
+     * a time and a database error only rolls back, and fails, the items of the chunk it happened in.
+     * A rejected item (missing account, insufficient funds) does not affect the other items.
+     * Items that carry a transaction ID are recorded as processed transfers in their chunk's
+     * transaction, like transfer commands, so a batch retried after a timeout, or an item also
+     * relayed through the outbox, gets the recorded outcome back instead of moving money twice.
+     * @param requests The transfers to apply, in order
+     * @return one result per transfer
+     */
+    public List<TransferResponse> updateAccountBalances(List<TransferRequest> requests) {
+        log.info("Updating account balances for batch of {} transfers", requests.size());
         
-        LocalDateTime threshold = LocalDateTime.now().minusHours(24);
-        List<Account> staleAccounts = accountRepository.findStaleAccounts(threshold);
+        List<TransferResponse> results = new ArrayList<>(requests.size());
+        for (int from = 0; from < requests.size(); from += batchChunkSize) {
+            List<TransferRequest> chunk = requests.subList(from, Math.min(from + batchChunkSize, requests.size()));
+            try {
+                results.addAll(transactionTemplate.execute(status -> applyChunk(chunk)));
+            } catch (RuntimeException e) {
+                // Earlier chunks are committed: report this chunk's items as failed rather than the whole batch
+                log.error("Batch chunk of {} transfers rolled back: {}", chunk.size(), e.getMessage());
+                for (int i = 0; i < chunk.size(); i++) {
+                    results.add(TransferResponse.builder()
+                            .success(false)
+                            .message("Transfer not applied: " + e.getMessage())
+                            .build());
+                }
+            }
+        }
         
-        for (Account account : staleAccounts) {
-            account.setStatus(AccountStatus.INACTIVE);
-            accountRepository.save(account);
-            log.info("Inactivated stale account: {}", account.getAccountId());
+        long succeeded = results.stream().filter(result -> Boolean.TRUE.equals(result.getSuccess())).count();
+        log.info("Batch applied: {} of {} transfers succeeded", succeeded, requests.size());
+        return results;
+    }
+    
+    private List<TransferResponse> applyChunk(List<TransferRequest> requests) {
+        // Lock every account of the chunk up front in one statement, in the same order single transfers
+        // take their locks, so the per-item updates below can run in request order without deadlocking.
+        // The statement also tells which accounts exist, so no item can fail after its debit was applied.
+        Set<UUID> accountIds = new HashSet<>();
+        for (TransferRequest request : requests) {
+            accountIds.add(request.getFromAccountId());
+            accountIds.add(request.getToAccountId());
         }
+        Set<UUID> existingIds = new HashSet<>(accountRepository.lockExistingIds(accountIds));
         
-        log.info("Completed inactivating {} stale accounts", staleAccounts.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<TransferResponse> results = new ArrayList<>(requests.size());
+        for (TransferRequest request : requests) {
+            UUID transactionId = request.getTransactionId();
+            if (transactionId != null
+                    && processedTransferRepository.insertIfAbsent(transactionId, true, TRANSFER_APPLIED, now) == 0) {
+                log.info("Transfer {} was already processed", transactionId);
+                TransferOutcome recorded = recordedOutcome(transactionId);
+                results.add(TransferResponse.builder()
+                        .success(recorded.getSuccess())
+                        .message(recorded.getMessage())
+                        .build());
+                continue;
+            }
+            
+            String failure = null;
+            if (!existingIds.contains(request.getFromAccountId())) {
+                failure = "From account not found";
+            } else if (!existingIds.contains(request.getToAccountId())) {
+                failure = "To account not found";
+            } else if (accountRepository.debit(request.getFromAccountId(), request.getAmount(), now) == 0) {
+                failure = "Insufficient funds";
+                insufficientFunds();
+            } else {
+                accountRepository.credit(request.getToAccountId(), request.getAmount(), now);
+            }
+            if (failure != null && transactionId != null) {
+                processedTransferRepository.markRejected(transactionId, failure);
+            }
+            
+            results.add(TransferResponse.builder()
+                    .success(failure == null)
+                    .message(failure == null ? TRANSFER_APPLIED : failure)
+                    .build());
+        }
+        
+        accountCache.evictAfterCommit(existingIds);
+        return results;
     }
     
-    private String generateAccountNumber() {
-        String accountNumber;
-        do {
-            accountNumber = String.format("%010d", (int) (Math.random() * 10000000000L));
-        } while (accountRepository.existsByAccountNumber(accountNumber));
+    /**
+     * Applies a transfer command at most once per transaction ID. The processed-transfer row is
+     * inserted in the same transaction as the balance updates, so both commit or neither does,
+     * and a redelivered command gets the recorded outcome back without touching the balances.
+     * @param command The transfer relayed from the Transaction Service outbox
+     * @return the outcome to publish back to the Transaction Service
+     */
+    @Transactional
+    public TransferOutcome applyTransferCommand(TransferCommand command) {
+        log.info("Applying transfer command: {}", command.getTransactionId());
+        
+        String message = TRANSFER_APPLIED;
+        if (processedTransferRepository.insertIfAbsent(command.getTransactionId(), true, message, LocalDateTime.now()) == 0) {
+            log.info("Transfer {} was already processed", command.getTransactionId());
+            return recordedOutcome(command.getTransactionId());
+        }
+        
+        TransferRequest request = new TransferRequest(command.getFromAccountId(), command.getToAccountId(), command.getAmount());
+        balanceUpdateTimer("outbox").record(() -> applyTransfer(request));
         
-        return accountNumber;
+        return TransferOutcome.builder()
+                .transactionId(command.getTransactionId())
+                .success(true)
+                .message(message)
+                .build();
     }
-
-
-    public void sendLog(String message, String messageType) {
-        Map<String, Object> payload = Map.of(
-                "message", message,
-                "messageType", messageType,
-                "dateTime", Instant.now().toString());
-
-        try {
-            String json = new ObjectMapper().writeValueAsString(payload);
-            kafkaTemplate.send("logging-topic", json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+    
+    /**
+     * Records a transfer command that was rejected (missing account, insufficient funds), so a
+     * redelivery reports the same outcome instead of being retried against newer balances.
+     * @param command The rejected transfer
+     * @param reason Why it was rejected
+     * @return the outcome to publish back to the Transaction Service
+     */
+    @Transactional
+    public TransferOutcome rejectTransferCommand(TransferCommand command, String reason) {
+        log.info("Transfer command {} rejected: {}", command.getTransactionId(), reason);
+        
+        if (processedTransferRepository.insertIfAbsent(command.getTransactionId(), false, reason, LocalDateTime.now()) == 0) {
+            return recordedOutcome(command.getTransactionId());
         }
+        
+        return TransferOutcome.builder()
+                .transactionId(command.getTransactionId())
+                .success(false)
+                .message(reason)
+                .build();
     }
-    public void  sendLog(Object json,String messageType) {
-            try {
-                String flattenJSON = objectMapper.writeValueAsString(json);
-                log.info("Sending log to Kafka: {}", flattenJSON);
-                sendLog(flattenJSON, messageType);
-            } catch (JsonProcessingException e) {
-                e.printStackTrace();
+    
+    private TransferOutcome recordedOutcome(UUID transactionId) {
+        ProcessedTransfer processed = processedTransferRepository.findById(transactionId)
+                .orElseThrow(() -> new RuntimeException("Processed transfer " + transactionId + " not found"));
+        return TransferOutcome.builder()
+                .transactionId(transactionId)
+                .success(processed.isSuccess())
+                .message(processed.getMessage())
+                .build();
+    }
+    
+    private void debit(UUID accountId, BigDecimal amount, LocalDateTime now) {
+        if (accountRepository.debit(accountId, amount, now) == 0) {
+            // Nothing updated: tell a missing account apart from a low balance
+            if (!accountRepository.existsById(accountId)) {
+                throw new RuntimeException("From account not found");
             }
-
+            insufficientFunds();
+            throw new RuntimeException("Insufficient funds");
+        }
+    }
+    
+    private void credit(UUID accountId, BigDecimal amount, LocalDateTime now) {
+        if (accountRepository.credit(accountId, amount, now) == 0) {
+            throw new RuntimeException("To account not found");
+        }
+    }
+    
+    private void insufficientFunds() {
+        meterRegistry.counter("bank.transfers.insufficient.funds").increment();
+    }
+    
+    public void sendLog(Object json, String messageType) {
+        auditLogPublisher.publish(json, messageType);
     }
-
 } 
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.repository.AccountRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Hourly job that inactivates stale accounts. It relies on PostgreSQL advisory locks, so
+ * configurations on another database (the H2 setups of tests, benchmarks and the load test)
+ * turn it off with {@code accounts.stale.enabled=false}.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "accounts.stale.enabled", havingValue = "true", matchIfMissing = true)
+public class StaleAccountService implements MeterBinder {
+    
+    /** Key of the PostgreSQL advisory lock that keeps the job to one instance at a time */
+    private static final long JOB_LOCK_KEY = 0x5354414C45L; // "STALE"
+    
+    private final AccountRepository accountRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AccountCache accountCache;
+    
+    @Value("${accounts.stale.threshold:24h}")
+    private Duration staleThreshold;
+    
+    @Value("${accounts.stale.batch-size:1000}")
+    private int batchSize;
+    
+    private final AtomicLong totalInactivated = new AtomicLong();
+    private final AtomicLong lastRunInactivated = new AtomicLong();
+    private final AtomicLong lastRunDurationMillis = new AtomicLong();
+    
+    /**
+     * Inactivates accounts without activity for longer than the threshold. The work is done with
+     * set-based updates in bounded chunks, each in its own short transaction, so the job never
+     * loads accounts into memory or holds row locks across the whole table. When several instances
+     * run, only the one holding the advisory lock does the work.
+     */
+    @Scheduled(fixedRate = 3600000, initialDelayString = "${accounts.stale.initial-delay:60000}") // Every hour
+    public void inactivateStaleAccounts() {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            if (!advisoryLock(connection, "pg_try_advisory_lock")) {
+                log.info("Stale account job already running on another instance, skipping");
+                return null;
+            }
+            try {
+                runChunks();
+            } finally {
+                advisoryLock(connection, "pg_advisory_unlock");
+            }
+            return null;
+        });
+    }
+    
+    private void runChunks() {
+        log.info("Starting scheduled job to inactivate stale accounts");
+        long start = System.currentTimeMillis();
+        LocalDateTime threshold = LocalDateTime.now().minus(staleThreshold);
+        
+        long inactivated = 0;
+        int updated;
+        do {
+            updated = transactionTemplate.execute(status -> accountRepository.inactivateStaleAccounts(threshold, batchSize));
+            inactivated += updated;
+            totalInactivated.addAndGet(updated);
+            if (updated > 0) {
+                // Status changes are not tracked per account; drop the cached accounts after each committed chunk
+                accountCache.evictAll();
+            }
+            log.debug("Inactivated chunk of {} stale accounts ({} so far)", updated, inactivated);
+        } while (updated == batchSize);
+        
+        lastRunInactivated.set(inactivated);
+        lastRunDurationMillis.set(System.currentTimeMillis() - start);
+        log.info("Completed inactivating {} stale accounts in {} ms", inactivated, lastRunDurationMillis.get());
+    }
+    
+    private boolean advisoryLock(Connection connection, String function) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, JOB_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+    
+    public long getTotalInactivated() {
+        return totalInactivated.get();
+    }
+    
+    public long getLastRunInactivated() {
+        return lastRunInactivated.get();
+    }
+    
+    public long getLastRunDurationMillis() {
+        return lastRunDurationMillis.get();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("accounts.stale.inactivated", totalInactivated, AtomicLong::get)
+                .description("Accounts inactivated by the stale account job")
+                .register(registry);
+        Gauge.builder("accounts.stale.last.run.inactivated", lastRunInactivated, AtomicLong::get)
+                .register(registry);
+        Gauge.builder("accounts.stale.last.run.duration", lastRunDurationMillis, AtomicLong::get)
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+}
\ No newline at end of file
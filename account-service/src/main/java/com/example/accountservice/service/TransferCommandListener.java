@@ -0,0 +1,66 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransferCommand;
+import com.example.accountservice.dto.TransferOutcome;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies the transfers relayed by the Transaction Service outbox and publishes their outcomes.
+ * Commands are delivered at least once; {@link AccountService#applyTransferCommand} makes
+ * redeliveries harmless, so the offset is only committed after the outcome has been sent.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TransferCommandListener {
+    
+    private final AccountService accountService;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${transfers.outcome.send-timeout:10s}")
+    private Duration sendTimeout;
+    
+    @KafkaListener(topics = TransferCommand.TOPIC,
+            groupId = "account-service-transfers",
+            concurrency = "${transfers.commands.concurrency:4}",
+            properties = "auto.offset.reset=earliest")
+    public void onTransferCommand(String message) throws JsonProcessingException {
+        TransferCommand command = objectMapper.readValue(message, TransferCommand.class);
+        
+        TransferOutcome outcome;
+        try {
+            outcome = accountService.applyTransferCommand(command);
+        } catch (DataAccessException | TransactionException e) {
+            // Infrastructure failure: nothing was recorded, let the container redeliver
+            throw e;
+        } catch (RuntimeException e) {
+            outcome = accountService.rejectTransferCommand(command, e.getMessage());
+        }
+        
+        try {
+            kafkaTemplate.send(TransferOutcome.TOPIC, outcome.getTransactionId().toString(),
+                            objectMapper.writeValueAsString(outcome))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing transfer outcome " + outcome.getTransactionId());
+        } catch (ExecutionException | TimeoutException e) {
+            throw new RuntimeException("Failed to publish transfer outcome " + outcome.getTransactionId() + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,47 +1,120 @@
 package com.example.accountservice.service;
 
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.CompletionException;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class UserValidationService {
+public class UserValidationService implements MeterBinder {
+    
+    private static final String USER_SERVICE = "user-service";
     
     private final WebClient webClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
     
     @Value("${user.service.url}")
     private String userServiceUrl;
     
+    /**
+     * User existence results. Positive results live for the full TTL, negative results only
+     * briefly so a freshly registered user becomes visible quickly. Concurrent lookups for
+     * the same user share one in-flight call.
+     */
+    private final AsyncCache<UUID, Boolean> userExistsCache;
+    
+    public UserValidationService(WebClient webClient,
+                                 CircuitBreakerRegistry circuitBreakerRegistry,
+                                 BulkheadRegistry bulkheadRegistry,
+                                 @Value("${user.validation.cache.max-size:10000}") long maxSize,
+                                 @Value("${user.validation.cache.ttl:5m}") Duration ttl,
+                                 @Value("${user.validation.cache.negative-ttl:10s}") Duration negativeTtl) {
+        this.webClient = webClient;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.userExistsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<UUID, Boolean>() {
+                    @Override
+                    public long expireAfterCreate(UUID userId, Boolean exists, long currentTime) {
+                        return (exists ? ttl : negativeTtl).toNanos();
+                    }
+                    
+                    @Override
+                    public long expireAfterUpdate(UUID userId, Boolean exists, long currentTime, long currentDuration) {
+                        return expireAfterCreate(userId, exists, currentTime);
+                    }
+                    
+                    @Override
+                    public long expireAfterRead(UUID userId, Boolean exists, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .buildAsync();
+    }
+    
     /**
      * Validates that a user exists by calling the User Service
      * @param userId The user ID to validate
      * @return true if user exists, false otherwise
      */
+    @Timed(value = "bank.user.validation", histogram = true)
     public Boolean validateUserExists(UUID userId) {
         try {
-            log.info("Validating user existence for userId: {}", userId);
-            
-            // Call User Service to get user profile
-            return webClient.get()
-                    .uri(userServiceUrl + "/users/" + userId + "/profile")
-                    .exchangeToMono(response -> {
-                        if (response.statusCode().is2xxSuccessful()) {
-                            return Mono.just(true);
-                        }
-                        return Mono.just(false);
-                    })
-                    .block();
-        } catch (Exception e) {
-            log.error("Error validating user for userId: {} - {}", userId, e.getMessage());
-            throw new RuntimeException("Unable to validate user existence: " + e.getMessage());
+            return userExistsCache.get(userId, (id, executor) -> fetchUserExists(id).toFuture()).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            log.error("Error validating user for userId: {} - {}", userId, cause.getMessage());
+            throw new RuntimeException("Unable to validate user existence: " + cause.getMessage());
         }
     }
-} 
\ No newline at end of file
+    
+    public CacheStats getCacheStats() {
+        return userExistsCache.synchronous().stats();
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, userExistsCache.synchronous(), "user-validation");
+    }
+    
+    private Mono<Boolean> fetchUserExists(UUID userId) {
+        log.info("Validating user existence for userId: {}", userId);
+        
+        // Call User Service to get user profile
+        return webClient.get()
+                .uri(userServiceUrl + "/users/{userId}/profile", userId)
+                .exchangeToMono(response -> {
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return Mono.just(true);
+                    }
+                    // A 5xx is an outage, not a missing user: fail (uncached) and count it against the circuit
+                    if (response.statusCode().is5xxServerError()) {
+                        return response.<Boolean>createError();
+                    }
+                    return Mono.just(false);
+                })
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(USER_SERVICE)))
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(USER_SERVICE)));
+    }
+}
@@ -0,0 +1,2 @@
+-- Account number serials, handed out in blocks of 1000 (AccountNumberGenerator.BLOCK_SIZE)
+CREATE SEQUENCE IF NOT EXISTS account_number_seq START WITH 1 INCREMENT BY 1000;
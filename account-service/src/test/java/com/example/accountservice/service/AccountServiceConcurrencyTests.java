@@ -0,0 +1,197 @@
+package com.example.accountservice.service;
+
+import com.example.accountservice.dto.TransferRequest;
+import com.example.accountservice.dto.TransferResponse;
+import com.example.accountservice.enums.AccountStatus;
+import com.example.accountservice.enums.AccountType;
+import com.example.accountservice.model.Account;
+import com.example.accountservice.repository.AccountRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs many concurrent transfers through {@link AccountService} against an in-memory H2 database
+ * in PostgreSQL mode and checks the invariants the conditional debit/credit updates guarantee:
+ * money is neither created nor lost, and no balance ever goes negative.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accountdb;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.kafka.listener.auto-startup=false",
+        "accounts.stale.enabled=false",
+        "logging.level.com.example.accountservice=WARN"
+})
+class AccountServiceConcurrencyTests {
+    
+    private static final int THREADS = 16;
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    
+    @Autowired
+    private AccountService accountService;
+    
+    @Autowired
+    private AccountRepository accountRepository;
+    
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        accountRepository.deleteAll();
+    }
+    
+    @Test
+    void concurrentDebitsNeverOverdrawAnAccount() throws Exception {
+        UUID source = createAccount(INITIAL_BALANCE);
+        UUID target = createAccount(BigDecimal.ZERO);
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        
+        // 50 transfers of 100 from an account holding 1000: exactly 10 can succeed
+        runConcurrently(50, () -> {
+            try {
+                accountService.updateAccountBalance(new TransferRequest(source, target, new BigDecimal("100.00")));
+                succeeded.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertEquals("Insufficient funds", e.getMessage());
+                rejected.incrementAndGet();
+            }
+            return null;
+        });
+        
+        assertEquals(10, succeeded.get());
+        assertEquals(40, rejected.get());
+        assertBalance(source, BigDecimal.ZERO);
+        assertBalance(target, INITIAL_BALANCE);
+    }
+    
+    @Test
+    void concurrentTransfersConserveTheTotalBalance() throws Exception {
+        List<UUID> accounts = createAccounts(4);
+        AtomicInteger succeeded = new AtomicInteger();
+        
+        // Random transfers in both directions between a few accounts, so threads contend on the same rows
+        runConcurrently(THREADS * 100, () -> {
+            TransferRequest request = randomTransfer(accounts);
+            try {
+                accountService.updateAccountBalance(request);
+                succeeded.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertEquals("Insufficient funds", e.getMessage());
+            }
+            return null;
+        });
+        
+        assertTrue(succeeded.get() > 0, "no transfer succeeded");
+        assertConserved(accounts);
+    }
+    
+    @Test
+    void concurrentBatchesAndSingleTransfersConserveTheTotalBalance() throws Exception {
+        List<UUID> accounts = createAccounts(4);
+        
+        runConcurrently(THREADS * 20, () -> {
+            if (ThreadLocalRandom.current().nextBoolean()) {
+                List<TransferRequest> batch = new ArrayList<>();
+                for (int i = 0; i < 10; i++) {
+                    batch.add(randomTransfer(accounts));
+                }
+                List<TransferResponse> results = accountService.updateAccountBalances(batch);
+                assertEquals(batch.size(), results.size());
+                for (TransferResponse result : results) {
+                    assertTrue(result.getSuccess() || "Insufficient funds".equals(result.getMessage()),
+                            "unexpected batch item failure: " + result.getMessage());
+                }
+            } else {
+                try {
+                    accountService.updateAccountBalance(randomTransfer(accounts));
+                } catch (RuntimeException e) {
+                    assertEquals("Insufficient funds", e.getMessage());
+                }
+            }
+            return null;
+        });
+        
+        assertConserved(accounts);
+    }
+    
+    private void runConcurrently(int tasks, Callable<Void> task) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Void>> futures = new ArrayList<>(tasks);
+        for (int i = 0; i < tasks; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            // Rethrows assertion failures and unexpected exceptions (e.g. deadlocks) from the workers
+            future.get(60, TimeUnit.SECONDS);
+        }
+    }
+    
+    private TransferRequest randomTransfer(List<UUID> accounts) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accounts.size());
+        int to = (from + 1 + random.nextInt(accounts.size() - 1)) % accounts.size();
+        BigDecimal amount = BigDecimal.valueOf(random.nextInt(1, 40_000), 2);
+        return new TransferRequest(accounts.get(from), accounts.get(to), amount);
+    }
+    
+    private List<UUID> createAccounts(int count) {
+        List<UUID> accounts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            accounts.add(createAccount(INITIAL_BALANCE));
+        }
+        return accounts;
+    }
+    
+    private UUID createAccount(BigDecimal balance) {
+        Account account = new Account();
+        account.setUserId(UUID.randomUUID());
+        account.setAccountNumber(String.valueOf(ThreadLocalRandom.current().nextLong(1_000_000_000L, 10_000_000_000L)));
+        account.setAccountType(AccountType.SAVINGS);
+        account.setBalance(balance);
+        account.setStatus(AccountStatus.ACTIVE);
+        return accountRepository.save(account).getAccountId();
+    }
+    
+    private void assertConserved(List<UUID> accounts) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accountRepository.findAllById(accounts)) {
+            assertTrue(account.getBalance().signum() >= 0, "negative balance: " + account.getBalance());
+            total = total.add(account.getBalance());
+        }
+        BigDecimal expected = INITIAL_BALANCE.multiply(BigDecimal.valueOf(accounts.size()));
+        assertEquals(0, expected.compareTo(total), "total balance changed: " + total);
+    }
+    
+    private void assertBalance(UUID accountId, BigDecimal expected) {
+        BigDecimal balance = accountRepository.findById(accountId).orElseThrow().getBalance();
+        assertEquals(0, expected.compareTo(balance), "balance of " + accountId + " is " + balance);
+    }
+}
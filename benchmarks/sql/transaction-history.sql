@@ -0,0 +1,66 @@
+-- Transaction history query plan benchmark (PostgreSQL).
+--
+-- Seeds a scratch copy of the transactions table with a few million rows spread over
+-- 10,000 accounts, then compares the original OR query with the UNION ALL rewrite used by
+-- TransactionRepository, without and with the composite indexes declared on Transaction.
+--
+--   psql -h localhost -U postgres -d transactiondb -f benchmarks/sql/transaction-history.sql
+--
+-- \timing prints the latency of every statement; the EXPLAIN output shows the plan change
+-- (Seq Scan + Sort before, Merge Append over two Index Scans after).
+
+\timing on
+
+DROP TABLE IF EXISTS transactions_bench;
+CREATE TABLE transactions_bench (LIKE transactions INCLUDING DEFAULTS);
+
+-- 5M transfers between 10,000 accounts over the last year
+INSERT INTO transactions_bench (transaction_id, from_account_id, to_account_id, amount, description, status, timestamp)
+SELECT gen_random_uuid(),
+       ('00000000-0000-0000-0000-' || lpad(((i * 7919) % 10000)::text, 12, '0'))::uuid,
+       ('00000000-0000-0000-0000-' || lpad(((i * 104729) % 10000)::text, 12, '0'))::uuid,
+       (random() * 1000)::numeric(15, 2),
+       'bench',
+       'SUCCESS',
+       now() - (random() * interval '365 days')
+FROM generate_series(1, 5000000) AS i;
+
+ANALYZE transactions_bench;
+
+\set account '''00000000-0000-0000-0000-000000000042'''
+
+-- 1. Original query, no indexes
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM transactions_bench
+WHERE from_account_id = :account OR to_account_id = :account
+ORDER BY timestamp DESC;
+
+CREATE INDEX idx_bench_from_account_ts ON transactions_bench (from_account_id, timestamp DESC, transaction_id DESC);
+CREATE INDEX idx_bench_to_account_ts ON transactions_bench (to_account_id, timestamp DESC, transaction_id DESC);
+ANALYZE transactions_bench;
+
+-- 2. Original query with the composite indexes (BitmapOr + Sort)
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM transactions_bench
+WHERE from_account_id = :account OR to_account_id = :account
+ORDER BY timestamp DESC;
+
+-- 3. UNION ALL rewrite: full history
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (
+    (SELECT t.* FROM transactions_bench t WHERE t.from_account_id = :account)
+    UNION ALL
+    (SELECT t.* FROM transactions_bench t WHERE t.to_account_id = :account AND t.from_account_id <> :account)
+) h ORDER BY h.timestamp DESC, h.transaction_id DESC;
+
+-- 4. UNION ALL rewrite: first keyset page of 50
+EXPLAIN (ANALYZE, BUFFERS)
+SELECT * FROM (
+    (SELECT t.* FROM transactions_bench t WHERE t.from_account_id = :account
+     ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT 51)
+    UNION ALL
+    (SELECT t.* FROM transactions_bench t WHERE t.to_account_id = :account AND t.from_account_id <> :account
+     ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT 51)
+) h ORDER BY h.timestamp DESC, h.transaction_id DESC LIMIT 51;
+
+DROP TABLE transactions_bench;
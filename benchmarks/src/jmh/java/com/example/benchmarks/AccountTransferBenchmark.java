@@ -0,0 +1,81 @@
+package com.example.benchmarks;
+
+import com.example.accountservice.dto.TransferRequest;
+import com.example.accountservice.dto.TransferResponse;
+import com.example.accountservice.enums.AccountStatus;
+import com.example.accountservice.enums.AccountType;
+import com.example.accountservice.model.Account;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.service.AccountService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link AccountService#updateAccountBalance} end to end: the conditional debit/credit
+ * updates and the balance read-back, in one transaction, against H2.
+ * Run with {@code -t <n>} threads to measure it under contention; fewer accounts means
+ * more transfers touching the same rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AccountTransferBenchmark {
+    
+    private static final BigDecimal AMOUNT = new BigDecimal("1.00");
+    
+    @Param({"10", "1000"})
+    public int accounts;
+    
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private UUID[] accountIds;
+    
+    @Setup
+    public void setUp() {
+        context = BenchmarkContexts.accountContext();
+        accountService = context.getBean(AccountService.class);
+        
+        UUID userId = UUID.randomUUID();
+        List<Account> seed = new ArrayList<>(accounts);
+        for (int i = 0; i < accounts; i++) {
+            Account account = new Account();
+            account.setUserId(userId);
+            account.setAccountNumber(String.format("%010d", i));
+            account.setAccountType(AccountType.CHECKING);
+            account.setBalance(new BigDecimal("1000000000.00"));
+            account.setStatus(AccountStatus.ACTIVE);
+            seed.add(account);
+        }
+        accountIds = context.getBean(AccountRepository.class).saveAll(seed).stream()
+                .map(Account::getAccountId)
+                .toArray(UUID[]::new);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TransferResponse updateAccountBalance() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountIds.length);
+        int to = (from + 1 + random.nextInt(accountIds.length - 1)) % accountIds.length;
+        return accountService.updateAccountBalance(new TransferRequest(accountIds[from], accountIds[to], AMOUNT));
+    }
+}
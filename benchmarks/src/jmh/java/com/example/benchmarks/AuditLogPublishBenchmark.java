@@ -0,0 +1,93 @@
+package com.example.benchmarks;
+
+import com.example.accountservice.dto.TransferRequest;
+import com.example.userservice.service.AuditLogPublisher;
+import io.micrometer.tracing.Tracer;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.mock.MockProducerFactory;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The {@code sendLog} path as seen by a request thread: {@link AuditLogPublisher#publish}
+ * with the drainer serializing and sending to an in-memory Kafka producer in the background.
+ * Run with {@code -t <n>} threads to see the effect of contention on the buffer.
+ *
+ * <p>Under DROP the score counts dropped calls too, which are just a counter increment; the
+ * {@code enqueued} and {@code dropped} secondary results split the calls so the score can be
+ * read against the number of records that actually made it into the buffer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class AuditLogPublishBenchmark {
+    
+    @Param({"DROP", "BLOCK"})
+    public AuditLogPublisher.OverflowPolicy overflowPolicy;
+    
+    /**
+     * Per-thread outcome of the publish calls, reported by JMH as secondary results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Outcome {
+        
+        public long enqueued;
+        public long dropped;
+        
+        @Setup(Level.Iteration)
+        public void reset() {
+            enqueued = 0;
+            dropped = 0;
+        }
+    }
+    
+    private MockProducer<String, String> producer;
+    private AuditLogPublisher publisher;
+    private TransferRequest payload;
+    
+    @Setup
+    public void setUp() {
+        producer = new MockProducer<>(true, new StringSerializer(), new StringSerializer());
+        KafkaTemplate<String, String> kafkaTemplate = new KafkaTemplate<>(new MockProducerFactory<>(() -> producer));
+        publisher = new AuditLogPublisher(kafkaTemplate, Jackson2ObjectMapperBuilder.json().build(), Tracer.NOOP,
+                10000, 500, overflowPolicy);
+        payload = new TransferRequest(UUID.randomUUID(), UUID.randomUUID(), new BigDecimal("125.50"));
+    }
+    
+    @TearDown(Level.Iteration)
+    public void clearSentRecords() {
+        // MockProducer keeps every sent record; drop them so memory stays flat across iterations
+        producer.clear();
+    }
+    
+    @TearDown
+    public void tearDown() throws InterruptedException {
+        publisher.shutdown();
+    }
+    
+    @Benchmark
+    public void publish(Outcome outcome) {
+        if (publisher.publish(payload, "Request")) {
+            outcome.enqueued++;
+        } else {
+            outcome.dropped++;
+        }
+    }
+}
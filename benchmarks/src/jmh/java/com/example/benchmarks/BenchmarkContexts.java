@@ -0,0 +1,110 @@
+package com.example.benchmarks;
+
+import com.example.accountservice.model.Account;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.service.AccountCache;
+import com.example.accountservice.service.AccountNumberGenerator;
+import com.example.accountservice.service.AccountService;
+import com.example.accountservice.service.UserValidationService;
+import com.example.transactionservice.model.Transaction;
+import com.example.transactionservice.repository.TransactionRepository;
+import com.example.transactionservice.service.AccountTransactionService;
+import com.example.transactionservice.service.TransactionService;
+import com.example.userservice.service.AuditLogPublisher;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Spring contexts for the service-level benchmarks. Each one wires the real service and
+ * repository beans against an in-memory H2 database in PostgreSQL mode, and replaces the
+ * calls to other services with local stand-ins so only the code under test is measured.
+ */
+final class BenchmarkContexts {
+    
+    private BenchmarkContexts() {
+    }
+    
+    static ConfigurableApplicationContext accountContext() {
+        return start(AccountBenchmarkApplication.class, "account-benchmark.properties");
+    }
+    
+    static ConfigurableApplicationContext transactionContext() {
+        return start(TransactionBenchmarkApplication.class, "transaction-benchmark.properties");
+    }
+    
+    private static ConfigurableApplicationContext start(Class<?> application, String properties) {
+        // Replace the default locations so the services' own application.properties (PostgreSQL,
+        // ports, debug logging) on the classpath are not picked up
+        return new SpringApplicationBuilder(application)
+                .run("--spring.config.location=classpath:/" + properties);
+    }
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Account.class)
+    @EnableJpaRepositories(basePackageClasses = AccountRepository.class)
+    @Import({AccountService.class, AccountCache.class, AccountNumberGenerator.class, AuditLogPublisher.class})
+    static class AccountBenchmarkApplication {
+        
+        @Bean
+        UserValidationService userValidationService() {
+            return new LocalUserValidationService();
+        }
+    }
+    
+    @SpringBootConfiguration
+    @EnableAutoConfiguration
+    @EntityScan(basePackageClasses = Transaction.class)
+    @EnableJpaRepositories(basePackageClasses = TransactionRepository.class)
+    @Import({TransactionService.class, AuditLogPublisher.class})
+    static class TransactionBenchmarkApplication {
+        
+        @Bean
+        AccountTransactionService accountTransactionService() {
+            return new LocalAccountTransactionService();
+        }
+    }
+    
+    /**
+     * Treats every user as existing, without calling the User Service.
+     */
+    static class LocalUserValidationService extends UserValidationService {
+        
+        LocalUserValidationService() {
+            super(WebClient.create(), CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(),
+                    1, Duration.ZERO, Duration.ZERO);
+        }
+        
+        @Override
+        public Boolean validateUserExists(UUID userId) {
+            return true;
+        }
+    }
+    
+    /**
+     * Treats every account as existing, without calling the Account Service.
+     */
+    static class LocalAccountTransactionService extends AccountTransactionService {
+        
+        LocalAccountTransactionService() {
+            super(WebClient.create(), CircuitBreakerRegistry.ofDefaults(), BulkheadRegistry.ofDefaults());
+        }
+        
+        @Override
+        public boolean validateAccountExists(UUID accountId) {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.benchmarks;
+
+import com.example.accountservice.dto.AccountResponse;
+import com.example.accountservice.enums.AccountStatus;
+import com.example.accountservice.enums.AccountType;
+import com.example.accountservice.model.Account;
+import com.example.accountservice.repository.AccountRepository;
+import com.example.accountservice.service.AccountService;
+import com.example.transactionservice.dto.TransactionResponse;
+import com.example.transactionservice.enums.TransactionStatus;
+import com.example.transactionservice.model.Transaction;
+import com.example.transactionservice.repository.TransactionRepository;
+import com.example.transactionservice.service.TransactionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The read paths behind the dashboard: {@link AccountService#getUserAccounts} and
+ * {@link TransactionService#getAccountTransactions}, i.e. the repository query plus the
+ * entity-to-DTO mapping, against H2 with the other services stubbed out.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DtoMappingBenchmark {
+    
+    @State(Scope.Benchmark)
+    public static class UserAccounts {
+        
+        @Param({"5", "50"})
+        public int accountsPerUser;
+        
+        private ConfigurableApplicationContext context;
+        private AccountService accountService;
+        private UUID userId;
+        
+        @Setup
+        public void setUp() {
+            context = BenchmarkContexts.accountContext();
+            accountService = context.getBean(AccountService.class);
+            
+            userId = UUID.randomUUID();
+            List<Account> seed = new ArrayList<>(accountsPerUser);
+            for (int i = 0; i < accountsPerUser; i++) {
+                Account account = new Account();
+                account.setUserId(userId);
+                account.setAccountNumber(String.format("%010d", i));
+                account.setAccountType(i % 2 == 0 ? AccountType.CHECKING : AccountType.SAVINGS);
+                account.setBalance(new BigDecimal("100.00"));
+                account.setStatus(AccountStatus.ACTIVE);
+                seed.add(account);
+            }
+            context.getBean(AccountRepository.class).saveAll(seed);
+        }
+        
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+    
+    @State(Scope.Benchmark)
+    public static class AccountHistory {
+        
+        @Param({"20", "500"})
+        public int historySize;
+        
+        private ConfigurableApplicationContext context;
+        private TransactionService transactionService;
+        private UUID accountId;
+        
+        @Setup
+        public void setUp() {
+            context = BenchmarkContexts.transactionContext();
+            transactionService = context.getBean(TransactionService.class);
+            
+            accountId = UUID.randomUUID();
+            UUID otherAccountId = UUID.randomUUID();
+            List<Transaction> seed = new ArrayList<>(historySize);
+            for (int i = 0; i < historySize; i++) {
+                Transaction transaction = new Transaction();
+                // Half outgoing, half incoming, so both branches of the history query return rows
+                transaction.setFromAccountId(i % 2 == 0 ? accountId : otherAccountId);
+                transaction.setToAccountId(i % 2 == 0 ? otherAccountId : accountId);
+                transaction.setAmount(new BigDecimal("10.00"));
+                transaction.setDescription("Benchmark transfer " + i);
+                transaction.setStatus(TransactionStatus.SUCCESS);
+                seed.add(transaction);
+            }
+            context.getBean(TransactionRepository.class).saveAll(seed);
+        }
+        
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+    }
+    
+    @Benchmark
+    public List<AccountResponse> getUserAccounts(UserAccounts state) {
+        return state.accountService.getUserAccounts(state.userId);
+    }
+    
+    @Benchmark
+    public List<TransactionResponse> getAccountTransactions(AccountHistory state) {
+        return state.transactionService.getAccountTransactions(state.accountId);
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.benchmarks;
+
+import com.example.userservice.service.PasswordHashingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login password verification throughput per BCrypt cost. {@code verifyPerCore} runs on a single
+ * thread, so its score is the login rate one core sustains; {@code verifyThroughPool} drives the
+ * hashing pool (one worker per core) from as many callers as there are cores, and its score divided
+ * by the core count shows what the pool hand-off costs on top of that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class PasswordHashingBenchmark {
+    
+    private static final String PASSWORD = "benchmark-password";
+    
+    @Param({"8", "10", "12"})
+    public int strength;
+    
+    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordHashingService passwordHashingService;
+    private String encodedPassword;
+    
+    @Setup
+    public void setUp() {
+        passwordEncoder = new BCryptPasswordEncoder(strength);
+        // Queue large enough that no caller is ever rejected
+        passwordHashingService = new PasswordHashingService(passwordEncoder, strength, 0, 10_000);
+        encodedPassword = passwordEncoder.encode(PASSWORD);
+    }
+    
+    @TearDown
+    public void tearDown() {
+        passwordHashingService.shutdown();
+    }
+    
+    @Benchmark
+    @Threads(1)
+    public boolean verifyPerCore() {
+        return passwordEncoder.matches(PASSWORD, encodedPassword);
+    }
+    
+    @Benchmark
+    @Threads(Threads.MAX)
+    public boolean verifyThroughPool() {
+        return passwordHashingService.matches(PASSWORD, encodedPassword).join();
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.benchmarks;
+
+import com.example.transactionservice.dto.TransactionResponse;
+import com.example.transactionservice.enums.TransactionStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@link TransactionResponse} lists, as written by the transaction
+ * history endpoints. Uses the same ObjectMapper configuration Spring Boot applies to the
+ * services (JSR-310 support, ISO dates).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionSerializationBenchmark {
+    
+    @Param({"10", "100", "1000"})
+    public int size;
+    
+    private ObjectWriter writer;
+    private List<TransactionResponse> transactions;
+    
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory()
+                .constructCollectionType(List.class, TransactionResponse.class));
+        
+        UUID accountId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        transactions = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            transactions.add(TransactionResponse.builder()
+                    .transactionId(UUID.randomUUID())
+                    .fromAccountId(accountId)
+                    .toAccountId(UUID.randomUUID())
+                    .amount(new BigDecimal("125.50"))
+                    .description("Benchmark transfer " + i)
+                    .timestamp(now.minusMinutes(i))
+                    .status(TransactionStatus.SUCCESS)
+                    .build());
+        }
+    }
+    
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return writer.writeValueAsBytes(transactions);
+    }
+}
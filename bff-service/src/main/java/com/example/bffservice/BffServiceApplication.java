@@ -1,10 +1,16 @@
 package com.example.bffservice;
 
+import com.example.userservice.config.ResilienceConfig;
+import com.example.userservice.config.TracingConfig;
+import com.example.userservice.config.WebClientConfig;
+import com.example.userservice.service.AuditLogPublisher;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
 
+@Import({AuditLogPublisher.class, TracingConfig.class, WebClientConfig.class, ResilienceConfig.class})
 @SpringBootApplication(exclude = {DataSourceAutoConfiguration.class, SecurityAutoConfiguration.class})
 public class BffServiceApplication {
 
@@ -13,6 +13,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.UUID;
@@ -27,22 +28,23 @@ public class BffController {
     private final BffService bffService;
 
     @GetMapping("/dashboard/{userId}")
-    public ResponseEntity<?> getDashboard(@PathVariable UUID userId) {
-        try {
-            String request = "Get /bff/dashboard/" + userId;
-            bffService.sendLog(request, "Request");
-            DashboardResponse response = bffService.getDashboard(userId);
-            bffService.sendLog(response, "Response");
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            log.error("Dashboard retrieval failed: {}", e.getMessage());
-            ErrorResponse response = ErrorResponse.builder()
-                .status(HttpStatus.NOT_FOUND.value())
-                .error("Not Found")
-                .message(e.getMessage())
-                .build();
-            bffService.sendLog(response, "Response");
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-        }
+    public Mono<ResponseEntity<?>> getDashboard(@PathVariable UUID userId) {
+        String request = "Get /bff/dashboard/" + userId;
+        bffService.sendLog(request, "Request");
+        return bffService.getDashboard(userId)
+            .<ResponseEntity<?>>map(response -> {
+                bffService.sendLog(response, "Response");
+                return ResponseEntity.ok(response);
+            })
+            .onErrorResume(RuntimeException.class, e -> {
+                log.error("Dashboard retrieval failed: {}", e.getMessage());
+                ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.NOT_FOUND.value())
+                    .error("Not Found")
+                    .message(e.getMessage())
+                    .build();
+                bffService.sendLog(response, "Response");
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(response));
+            });
     }
 } 
@@ -28,4 +28,6 @@ public class UserAccount {
     private BigDecimal balance;
     private String status;
     private List<TransactionResponse> transactions;
+    /** Set when only the latest transactions are listed: cursor for GET /transactions/accounts/{accountId}/page */
+    private String transactionsCursor;
 }
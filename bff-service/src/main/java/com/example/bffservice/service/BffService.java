@@ -1,35 +1,42 @@
 package com.example.bffservice.service;
 
 import com.example.bffservice.dto.DashboardResponse;
-import com.example.transactionservice.dto.TransactionResponse;
+import com.example.transactionservice.dto.TransactionPage;
 import com.example.bffservice.model.UserAccount;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.userservice.service.AuditLogPublisher;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.core.ParameterizedTypeReference;
 import reactor.core.publisher.Mono;
-import reactor.core.publisher.Flux;
-import org.springframework.kafka.core.KafkaTemplate;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import java.time.Instant;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BffService {
     
+    private static final String USER_SERVICE = "user-service";
+    private static final String ACCOUNT_SERVICE = "account-service";
+    private static final String TRANSACTION_SERVICE = "transaction-service";
+    
     private final WebClient webClient;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final AuditLogPublisher auditLogPublisher;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
 
 
 
@@ -42,93 +49,108 @@ public class BffService {
     @Value("${transaction.service.url}")
     private String transactionServiceUrl;
     
-    public DashboardResponse getDashboard(UUID userId) {
+    @Value("${bff.timeout.profile:2s}")
+    private Duration profileTimeout;
+    
+    @Value("${bff.timeout.accounts:2s}")
+    private Duration accountsTimeout;
+    
+    @Value("${bff.timeout.transactions:2s}")
+    private Duration transactionsTimeout;
+    
+    /**
+     * Builds the dashboard without blocking: the profile is fetched in parallel with the
+     * accounts-and-transactions chain, so the latency is the slower of the two, not their sum.
+     */
+    public Mono<DashboardResponse> getDashboard(UUID userId) {
         log.info("Fetching dashboard for user: {}", userId);
-        try {
-            DashboardResponse response = webClient.get()
-                .uri(userServiceUrl + "/users/" + userId + "/profile")
-                .retrieve()
-                .bodyToMono(new ParameterizedTypeReference<DashboardResponse>() {})
-                .block();
-            List<UserAccount> accounts = getUserAccountsWithTransactions(userId);
-            if (!accounts.isEmpty()) {
-                response.setAccounts(accounts);
-            }
-            return response;  
-        } catch (Exception e) {
-            log.warn("Failed to get dashboard for user {}: {}", userId, e.getMessage());
-            throw new RuntimeException("Failed to get dashboard for user: " + userId);
-        }         
+        Mono<DashboardResponse> profile = webClient.get()
+            .uri(userServiceUrl + "/users/{userId}/profile", userId)
+            .retrieve()
+            .bodyToMono(new ParameterizedTypeReference<DashboardResponse>() {})
+            .timeout(profileTimeout)
+            .transform(call -> protect(USER_SERVICE, call))
+            .switchIfEmpty(Mono.error(() -> new IllegalStateException("Empty profile response")));
+        
+        // @Timed would only time the assembly of the Mono, so the timer is stopped when it completes
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return Mono.zip(profile, getUserAccountsWithTransactions(userId))
+            .map(tuple -> {
+                DashboardResponse response = tuple.getT1();
+                List<UserAccount> accounts = tuple.getT2();
+                if (!accounts.isEmpty()) {
+                    response.setAccounts(accounts);
+                }
+                return response;
+            })
+            .onErrorMap(e -> {
+                log.warn("Failed to get dashboard for user {}: {}", userId, e.getMessage());
+                return new RuntimeException("Failed to get dashboard for user: " + userId);
+            })
+            .doFinally(signal -> sample.stop(Timer.builder("bank.dashboard")
+                    .tag("outcome", signal.name())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)));
     }
 
 
 
-    public List<UserAccount> getUserAccountsWithTransactions(UUID userId) {
-        try {
-            // Get user accounts first
-            List<UserAccount> accounts = webClient.get()
-                    .uri(accountServiceUrl + "/accounts/users/" + userId + "/accounts")
-                    .retrieve()
-                    .bodyToMono(new ParameterizedTypeReference<List<UserAccount>>() {})
-                    .block();
-    
-            if (accounts == null || accounts.isEmpty()) {
-                log.info("No accounts found for user {}", userId);
-                return List.of();
-            }
+    public Mono<List<UserAccount>> getUserAccountsWithTransactions(UUID userId) {
+        // Get user accounts first, then the transactions of all of them in one call
+        return webClient.get()
+                .uri(accountServiceUrl + "/accounts/users/{userId}/accounts", userId)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<UserAccount>>() {})
+                .timeout(accountsTimeout)
+                .transform(call -> protect(ACCOUNT_SERVICE, call))
+                .flatMap(accounts -> accounts.isEmpty() ? Mono.just(accounts) : attachTransactions(accounts))
+                .defaultIfEmpty(List.of())
+                .onErrorResume(e -> {
+                    log.warn("Failed to get accounts with transactions for user {}: {}", userId, e.getMessage());
+                    return Mono.just(List.of());
+                });
+    }
     
-            // Fetch transactions for each account asynchronously
-            return Flux.fromIterable(accounts)
-                    .flatMap(account -> webClient.get()
-                            .uri(transactionServiceUrl + "/transactions/accounts/" + account.getAccountId())
-                            .retrieve()
-                            .bodyToMono(new ParameterizedTypeReference<List<TransactionResponse>>() {})
-                            // If 404 -> set transactions = null
-                            .onErrorResume(WebClientResponseException.NotFound.class, e -> {
-                                log.warn("Transactions not found for account {}", account.getAccountId());
-                                return Mono.just(List.<TransactionResponse>of()); // return dummy to continue flow
-                            })
-                            // For other errors -> still continue, set null
-                            .onErrorResume(e -> {
-                                log.error("Error fetching transactions for account {}: {}", account.getAccountId(), e.getMessage());
-                                return Mono.just(List.<TransactionResponse>of());
-                            })
-                            .map(transactions -> {
-                                // If not 404, set transactions normally
-                                if (account.getTransactions() == null && transactions.size() > 0) {
-                                    account.setTransactions(transactions);
-                                }
-                                return account;
-                            })
-                    )
-                    .collectList()
-                    .block(); // blocking since method returns List
-        } catch (Exception e) {
-            log.warn("Failed to get accounts with transactions for user {}: {}", userId, e.getMessage());
-            return List.of();
-        }
+    private Mono<List<UserAccount>> attachTransactions(List<UserAccount> accounts) {
+        String accountIds = accounts.stream()
+                .map(account -> account.getAccountId().toString())
+                .collect(Collectors.joining(","));
+        
+        return webClient.get()
+                .uri(transactionServiceUrl + "/transactions/accounts?accountIds={accountIds}", accountIds)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<UUID, TransactionPage>>() {})
+                .timeout(transactionsTimeout)
+                .transform(call -> protect(TRANSACTION_SERVICE, call))
+                .map(pagesByAccount -> {
+                    for (UserAccount account : accounts) {
+                        TransactionPage page = pagesByAccount.get(account.getAccountId());
+                        // Accounts without transactions keep transactions = null
+                        if (page != null && page.getTransactions() != null && !page.getTransactions().isEmpty()) {
+                            account.setTransactions(page.getTransactions());
+                            account.setTransactionsCursor(page.getNextCursor());
+                        }
+                    }
+                    return accounts;
+                })
+                // Transactions are optional: on any error (including an open circuit) serve the accounts without them
+                .onErrorResume(e -> {
+                    log.error("Error fetching transactions for {} accounts: {}", accounts.size(), e.getMessage());
+                    return Mono.just(accounts);
+                });
     }
-    public void sendLog(String message, String messageType) {
-        Map<String, Object> payload = Map.of(
-                "message", message,
-                "messageType", messageType,
-                "dateTime", Instant.now().toString());
-
-        try {
-            String json = new ObjectMapper().writeValueAsString(payload);
-            kafkaTemplate.send("logging-topic", json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
+    
+    /**
+     * Guards a downstream call with that service's circuit breaker and bulkhead, so an
+     * unhealthy service is failed fast and the dashboard degrades instead of waiting on it.
+     */
+    private <T> Mono<T> protect(String downstream, Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(downstream)))
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(downstream)));
     }
-    public void  sendLog(Object json,String messageType) {
-        try {
-            String flattenJSON = objectMapper.writeValueAsString(json);
-            log.info("Sending log to Kafka: {}", flattenJSON);
-            sendLog(flattenJSON, messageType);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
-
+    
+    public void sendLog(Object json, String messageType) {
+        auditLogPublisher.publish(json, messageType);
     }
 } 
\ No newline at end of file
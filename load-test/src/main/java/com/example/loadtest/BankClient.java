@@ -0,0 +1,123 @@
+package com.example.loadtest;
+
+import com.example.accountservice.dto.AccountCreationRequest;
+import com.example.accountservice.enums.AccountType;
+import com.example.transactionservice.dto.TransferExecutionRequest;
+import com.example.transactionservice.dto.TransferInitiationRequest;
+import com.example.userservice.dto.UserRegistrationRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Blocking HTTP client for the public endpoints exercised by the workflow. Every call is
+ * timed under {@code client <METHOD> <route>}; non-2xx responses are recorded as errors
+ * and fail the call.
+ */
+class BankClient {
+    
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final Latencies latencies;
+    private final String userServiceUrl;
+    private final String accountServiceUrl;
+    private final String transactionServiceUrl;
+    private final String bffServiceUrl;
+    
+    BankClient(ObjectMapper objectMapper, Latencies latencies, int basePort) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        this.objectMapper = objectMapper;
+        this.latencies = latencies;
+        this.userServiceUrl = "http://localhost:" + basePort;
+        this.accountServiceUrl = "http://localhost:" + (basePort + 1);
+        this.transactionServiceUrl = "http://localhost:" + (basePort + 2);
+        this.bffServiceUrl = "http://localhost:" + (basePort + 3);
+    }
+    
+    UUID register(String username) throws IOException, InterruptedException {
+        UserRegistrationRequest request = new UserRegistrationRequest();
+        request.setUsername(username);
+        request.setPassword("load-test-password");
+        request.setEmail(username + "@loadtest.example.com");
+        request.setFirstName("Load");
+        request.setLastName("Test");
+        JsonNode response = post("POST /users/register", userServiceUrl + "/users/register", request);
+        return UUID.fromString(response.get("userId").asText());
+    }
+    
+    UUID createAccount(UUID userId, BigDecimal initialBalance) throws IOException, InterruptedException {
+        AccountCreationRequest request = new AccountCreationRequest();
+        request.setUserId(userId);
+        request.setAccountType(AccountType.CHECKING);
+        request.setInitialBalance(initialBalance);
+        JsonNode response = post("POST /accounts", accountServiceUrl + "/accounts", request);
+        return UUID.fromString(response.get("accountId").asText());
+    }
+    
+    UUID initiateTransfer(UUID fromAccountId, UUID toAccountId, BigDecimal amount)
+            throws IOException, InterruptedException {
+        TransferInitiationRequest request = new TransferInitiationRequest();
+        request.setFromAccountId(fromAccountId);
+        request.setToAccountId(toAccountId);
+        request.setAmount(amount);
+        request.setDescription("Load test transfer");
+        JsonNode response = post("POST /transactions/transfer/initiation",
+                transactionServiceUrl + "/transactions/transfer/initiation", request);
+        return UUID.fromString(response.get("transactionId").asText());
+    }
+    
+    void executeTransfer(UUID transactionId) throws IOException, InterruptedException {
+        TransferExecutionRequest request = new TransferExecutionRequest();
+        request.setTransactionId(transactionId);
+        post("POST /transactions/transfer/execution",
+                transactionServiceUrl + "/transactions/transfer/execution", request);
+    }
+    
+    void getDashboard(UUID userId) throws IOException, InterruptedException {
+        send("GET /bff/dashboard/{userId}", HttpRequest.newBuilder(URI.create(bffServiceUrl + "/bff/dashboard/" + userId))
+                .timeout(REQUEST_TIMEOUT)
+                .GET()
+                .build());
+    }
+    
+    private JsonNode post(String route, String url, Object body) throws IOException, InterruptedException {
+        return send(route, HttpRequest.newBuilder(URI.create(url))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build());
+    }
+    
+    private JsonNode send(String route, HttpRequest request) throws IOException, InterruptedException {
+        String key = "client " + route;
+        long start = System.nanoTime();
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            latencies.record(key, System.nanoTime() - start);
+            latencies.recordError(key);
+            throw e;
+        }
+        latencies.record(key, System.nanoTime() - start);
+        
+        if (response.statusCode() / 100 != 2) {
+            latencies.recordError(key);
+            throw new IOException(route + " returned " + response.statusCode() + ": " + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+}
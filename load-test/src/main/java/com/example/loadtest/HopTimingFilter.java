@@ -0,0 +1,43 @@
+package com.example.loadtest;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the server-side latency of every request a service handles, keyed by service and
+ * route pattern, so each hop (e.g. transaction-service calling account-service) gets its own
+ * histogram next to the client-side one.
+ */
+class HopTimingFilter extends OncePerRequestFilter {
+    
+    private final String service;
+    private final Latencies latencies;
+    
+    HopTimingFilter(String service, Latencies latencies) {
+        this.service = service;
+        this.latencies = latencies;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // The route pattern is only known once the request has been dispatched
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String key = service + " " + request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+            latencies.record(key, System.nanoTime() - start);
+            if (response.getStatus() >= 400) {
+                latencies.recordError(key);
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms keyed by endpoint, shared by the load driver (client side) and the
+ * services running in the same JVM (server side of every hop). Values are recorded in
+ * microseconds.
+ */
+class Latencies {
+    
+    private static final int SIGNIFICANT_DIGITS = 3;
+    
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> totals = new ConcurrentHashMap<>();
+    
+    void record(String key, long nanos) {
+        recorders.computeIfAbsent(key, k -> new Recorder(SIGNIFICANT_DIGITS))
+                .recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+    }
+    
+    void recordError(String key) {
+        errors.computeIfAbsent(key, k -> new AtomicLong()).incrementAndGet();
+    }
+    
+    /**
+     * Discards everything recorded so far, e.g. at the end of the warmup.
+     */
+    void reset() {
+        recorders.values().forEach(Recorder::reset);
+        errors.clear();
+        totals.clear();
+    }
+    
+    /**
+     * Prints a percentile summary per key and writes each key's full distribution to
+     * {@code <key>.hgrm} in the given directory (values in milliseconds).
+     */
+    void report(PrintStream out, Path directory) throws IOException {
+        recorders.forEach((key, recorder) -> totals.computeIfAbsent(key, k -> new Histogram(SIGNIFICANT_DIGITS))
+                .add(recorder.getIntervalHistogram()));
+        
+        Files.createDirectories(directory);
+        out.printf("%-60s %9s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "count", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(totals).entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.printf("%-60s %9d %7d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    entry.getKey(),
+                    histogram.getTotalCount(),
+                    errors.getOrDefault(entry.getKey(), new AtomicLong()).get(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+            
+            Path file = directory.resolve(entry.getKey().replaceAll("[^A-Za-z0-9.-]+", "_") + ".hgrm");
+            try (PrintStream hgrm = new PrintStream(Files.newOutputStream(file))) {
+                histogram.outputPercentileDistribution(hgrm, 1000.0);
+            }
+        }
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.loadtest;
+
+import com.example.accountservice.AccountServiceApplication;
+import com.example.bffservice.BffServiceApplication;
+import com.example.transactionservice.TransactionServiceApplication;
+import com.example.userservice.UserServiceApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test. Boots an embedded Kafka broker and user, account, transaction and
+ * bff service in this JVM, each on its own in-memory H2 database (PostgreSQL mode), then
+ * drives the full customer workflow against them and prints latency percentiles per
+ * endpoint, both as seen by the client and for every service-to-service hop.
+ *
+ * <p>The logging service is a separate build on a different Spring Boot line and is not
+ * started; audit records are still produced to the embedded broker.
+ */
+@Slf4j
+public class LoadTest {
+    
+    private static final String LOGGING_TOPIC = "logging-topic";
+    
+    public static void main(String[] args) throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        Latencies latencies = new Latencies();
+        
+        EmbeddedKafkaKraftBroker kafka = new EmbeddedKafkaKraftBroker(1, 1, LOGGING_TOPIC);
+        kafka.afterPropertiesSet();
+        
+        List<ConfigurableApplicationContext> services = new ArrayList<>();
+        try {
+            Map<String, Object> environment = Map.of(
+                    "loadtest.kafka.bootstrap-servers", kafka.getBrokersAsString(),
+                    "loadtest.virtual-threads", settings.virtualThreads(),
+                    "loadtest.port.user", settings.basePort(),
+                    "loadtest.port.account", settings.basePort() + 1,
+                    "loadtest.port.transaction", settings.basePort() + 2,
+                    "loadtest.port.bff", settings.basePort() + 3);
+            services.add(start(UserServiceApplication.class, "user-service", "user", environment, latencies));
+            services.add(start(AccountServiceApplication.class, "account-service", "account", environment, latencies));
+            services.add(start(TransactionServiceApplication.class, "transaction-service", "transaction", environment, latencies));
+            services.add(start(BffServiceApplication.class, "bff-service", "bff", environment, latencies));
+            
+            BankClient client = new BankClient(Jackson2ObjectMapperBuilder.json().build(), latencies, settings.basePort());
+            WorkflowDriver driver = new WorkflowDriver(client, latencies, settings.rate(), settings.maxInFlight());
+            
+            if (settings.closedModel()) {
+                log.warn("Warming up for {} with {} clients (virtual threads: {})",
+                        settings.warmup(), settings.clients(), settings.virtualThreads());
+                driver.runClosed(settings.warmup(), settings.clients());
+                latencies.reset();
+                
+                log.warn("Measuring for {} with {} clients", settings.duration(), settings.clients());
+                driver.runClosed(settings.duration(), settings.clients());
+                
+                System.out.printf("%nClients: %d, duration: %s, virtual threads: %s, throughput: %.1f workflows/s%n%n",
+                        settings.clients(), settings.duration(), settings.virtualThreads(),
+                        driver.getCompletedCount() / (settings.duration().toMillis() / 1000.0));
+            } else {
+                log.warn("Warming up for {} at {} workflows/s (virtual threads: {})",
+                        settings.warmup(), settings.rate(), settings.virtualThreads());
+                driver.run(settings.warmup());
+                latencies.reset();
+                
+                log.warn("Measuring for {} at {} workflows/s", settings.duration(), settings.rate());
+                driver.run(settings.duration());
+                
+                System.out.printf("%nRate: %d workflows/s, duration: %s, virtual threads: %s, dropped starts: %d%n%n",
+                        settings.rate(), settings.duration(), settings.virtualThreads(), driver.getDroppedCount());
+            }
+            latencies.report(System.out, settings.reportDirectory());
+            System.out.printf("%nPercentile distributions written to %s%n", settings.reportDirectory().toAbsolutePath());
+        } finally {
+            for (int i = services.size() - 1; i >= 0; i--) {
+                services.get(i).close();
+            }
+            kafka.destroy();
+        }
+    }
+    
+    private static ConfigurableApplicationContext start(Class<?> application, String service, String properties,
+                                                        Map<String, Object> environment, Latencies latencies) {
+        return new SpringApplicationBuilder(application)
+                .properties(environment)
+                // Serve each hop through a timing filter that shares the driver's histograms
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("hopTimingFilter", new HopTimingFilter(service, latencies)))
+                // Replace the default locations: every service jar on this classpath ships its own
+                // application.properties, pointing at PostgreSQL and fixed ports
+                .run("--spring.config.location=classpath:/loadtest/" + properties + ".properties");
+    }
+}
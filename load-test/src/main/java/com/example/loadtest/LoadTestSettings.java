@@ -0,0 +1,41 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Load test parameters, read from {@code loadtest.*} system properties.
+ * @param rate Workflows started per second (open model: the rate does not drop when the system slows down)
+ * @param clients Concurrent clients running workflows back to back (closed model); when positive it replaces the rate
+ * @param duration How long to generate load for, after the warmup
+ * @param warmup How long to generate load before measuring
+ * @param maxInFlight Cap on concurrently running workflows; starts beyond it are counted as dropped
+ * @param virtualThreads Whether the services handle requests on virtual threads
+ * @param basePort First of the four consecutive ports used by user, account, transaction and bff service
+ * @param reportDirectory Where the per-endpoint percentile distributions (.hgrm) are written
+ */
+record LoadTestSettings(int rate,
+                        int clients,
+                        Duration duration,
+                        Duration warmup,
+                        int maxInFlight,
+                        boolean virtualThreads,
+                        int basePort,
+                        Path reportDirectory) {
+    
+    boolean closedModel() {
+        return clients > 0;
+    }
+    
+    static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                Integer.getInteger("loadtest.rate", 20),
+                Integer.getInteger("loadtest.clients", 0),
+                Duration.parse(System.getProperty("loadtest.duration", "PT60S")),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT15S")),
+                Integer.getInteger("loadtest.max-in-flight", 10000),
+                Boolean.getBoolean("loadtest.virtual-threads"),
+                Integer.getInteger("loadtest.base-port", 18081),
+                Path.of(System.getProperty("loadtest.report-dir", "build/load-test")));
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives register → create accounts → initiate → execute → dashboard workflows, either at a
+ * fixed rate (open model) or from a fixed number of clients that each start their next
+ * workflow as soon as the previous one finished (closed model).
+ *
+ * <p>In the open model the end-to-end workflow latency is measured from the scheduled start
+ * time, so a stalled system shows up in the numbers instead of silently lowering the rate.
+ * In the closed model a slow system lowers the throughput instead, which is what is compared
+ * between platform and virtual threads at a given number of concurrent clients.
+ */
+@Slf4j
+class WorkflowDriver {
+    
+    private static final String WORKFLOW = "workflow register-account-transfer-dashboard";
+    private static final BigDecimal INITIAL_BALANCE = new BigDecimal("1000.00");
+    private static final BigDecimal TRANSFER_AMOUNT = new BigDecimal("10.00");
+    
+    private final BankClient client;
+    private final Latencies latencies;
+    private final int rate;
+    private final Semaphore inFlight;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong completed = new AtomicLong();
+    
+    WorkflowDriver(BankClient client, Latencies latencies, int rate, int maxInFlight) {
+        this.client = client;
+        this.latencies = latencies;
+        this.rate = rate;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+    
+    /**
+     * Generates load for the given duration and waits for the started workflows to finish.
+     */
+    void run(Duration duration) throws InterruptedException {
+        dropped.set(0);
+        completed.set(0);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long durationNanos = duration.toNanos();
+        long start = System.nanoTime();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long scheduledStart = start + i * intervalNanos;
+                if (scheduledStart - start >= durationNanos) {
+                    break;
+                }
+                long wait = scheduledStart - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (!inFlight.tryAcquire()) {
+                    dropped.incrementAndGet();
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        runWorkflow(scheduledStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+    }
+    
+    /**
+     * Runs the given number of clients for the given duration, each on its own virtual thread
+     * and without think time, and waits for their last workflows to finish.
+     */
+    void runClosed(Duration duration, int clients) {
+        dropped.set(0);
+        completed.set(0);
+        long deadline = System.nanoTime() + duration.toNanos();
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < clients; i++) {
+                executor.execute(() -> {
+                    while (System.nanoTime() - deadline < 0 && !Thread.currentThread().isInterrupted()) {
+                        runWorkflow(System.nanoTime());
+                    }
+                });
+            }
+        }
+    }
+    
+    long getDroppedCount() {
+        return dropped.get();
+    }
+    
+    /**
+     * Workflows of the most recent run that finished without an error.
+     */
+    long getCompletedCount() {
+        return completed.get();
+    }
+    
+    private void runWorkflow(long scheduledStart) {
+        try {
+            UUID userId = client.register("lt-" + UUID.randomUUID());
+            UUID fromAccountId = client.createAccount(userId, INITIAL_BALANCE);
+            UUID toAccountId = client.createAccount(userId, BigDecimal.ZERO);
+            UUID transactionId = client.initiateTransfer(fromAccountId, toAccountId, TRANSFER_AMOUNT);
+            client.executeTransfer(transactionId);
+            client.getDashboard(userId);
+            latencies.record(WORKFLOW, System.nanoTime() - scheduledStart);
+            completed.incrementAndGet();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            latencies.record(WORKFLOW, System.nanoTime() - scheduledStart);
+            latencies.recordError(WORKFLOW);
+            log.debug("Workflow failed: {}", e.getMessage());
+        }
+    }
+}
@@ -1,17 +1,24 @@
 package com.example.transactionservice.controller;
 
+import com.example.transactionservice.dto.BatchTransferInitiationRequest;
+import com.example.transactionservice.dto.TransactionPage;
 import com.example.transactionservice.dto.TransferExecutionRequest;
 import com.example.transactionservice.dto.TransferInitiationRequest;
 import com.example.transactionservice.dto.TransactionResponse;
+import com.example.transactionservice.service.IdempotencyService;
 import com.example.transactionservice.service.TransactionService;
 import com.example.userservice.dto.ErrorResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.http.HttpStatus;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -22,16 +29,103 @@ import java.util.UUID;
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/transfer/initiation")
-    public ResponseEntity<?> initiateTransfer(@Valid @RequestBody TransferInitiationRequest request) {
+    public ResponseEntity<?> initiateTransfer(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                              @Valid @RequestBody TransferInitiationRequest request) {
+        return idempotencyService.execute(idempotencyKey, "transfer-initiation", request, () -> {
+            try {
+                transactionService.sendLog(request, "Request");
+                TransactionResponse response = transactionService.initiateTransfer(request);
+                transactionService.sendLog(response, "Response");
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                log.error("Transfer initiation failed: {}", e.getMessage());
+                ErrorResponse response = ErrorResponse.builder()
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .error("Bad Request")
+                        .message(e.getMessage())
+                        .build();
+                transactionService.sendLog(response, "Response");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+        });
+    }
+    
+    @PostMapping("/transfer/execution")
+    public ResponseEntity<?> executeTransfer(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                             @Valid @RequestBody TransferExecutionRequest request) {
+        return idempotencyService.execute(idempotencyKey, "transfer-execution", request, () -> {
+            try {
+                transactionService.sendLog(request, "Request");
+                TransactionResponse response = transactionService.executeTransfer(request);
+                transactionService.sendLog(response, "Response");
+                return ResponseEntity.ok(response);
+            } catch (RuntimeException e) {
+                log.error("Transfer execution failed: {}", e.getMessage());
+                ErrorResponse response = ErrorResponse.builder()
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .error("Bad Request")
+                        .message(e.getMessage())
+                        .build();
+                transactionService.sendLog(response, "Response");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+        });
+    }
+    
+    @PostMapping("/transfer/submission")
+    public ResponseEntity<?> submitTransfer(@RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                            @Valid @RequestBody TransferExecutionRequest request) {
+        return idempotencyService.execute(idempotencyKey, "transfer-submission", request, () -> {
+            try {
+                transactionService.sendLog(request, "Request");
+                TransactionResponse response = transactionService.submitTransfer(request);
+                transactionService.sendLog(response, "Response");
+                return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            } catch (RuntimeException e) {
+                log.error("Transfer submission failed: {}", e.getMessage());
+                ErrorResponse response = ErrorResponse.builder()
+                        .status(HttpStatus.BAD_REQUEST.value())
+                        .error("Bad Request")
+                        .message(e.getMessage())
+                        .build();
+                transactionService.sendLog(response, "Response");
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+            }
+        });
+    }
+    
+    @GetMapping("/{transactionId}")
+    public ResponseEntity<?> getTransaction(@PathVariable UUID transactionId) {
+        try {
+            String request = "Get /transactions/" + transactionId;
+            transactionService.sendLog(request, "Request");
+            TransactionResponse response = transactionService.getTransaction(transactionId);
+            transactionService.sendLog(response, "Response");
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            log.error("Transaction retrieval failed: {}", e.getMessage());
+            ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.NOT_FOUND.value())
+                    .error("Not Found")
+                    .message(e.getMessage())
+                    .build();
+            transactionService.sendLog(response, "Response");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+    
+    @PostMapping("/transfer/batch")
+    public ResponseEntity<?> executeBatchTransfer(@Valid @RequestBody BatchTransferInitiationRequest request) {
         try {
             transactionService.sendLog(request, "Request");
-            TransactionResponse response = transactionService.initiateTransfer(request);
+            List<TransactionResponse> response = transactionService.executeBatchTransfer(request.getTransfers());
             transactionService.sendLog(response, "Response");
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
-            log.error("Transfer initiation failed: {}", e.getMessage());
+            log.error("Batch transfer failed: {}", e.getMessage());
             ErrorResponse response = ErrorResponse.builder()
                     .status(HttpStatus.BAD_REQUEST.value())
                     .error("Bad Request")
@@ -42,15 +136,16 @@ public class TransactionController {
         }
     }
     
-    @PostMapping("/transfer/execution")
-    public ResponseEntity<?> executeTransfer(@Valid @RequestBody TransferExecutionRequest request) {
+    @GetMapping("/accounts")
+    public ResponseEntity<?> getTransactionsByAccounts(@RequestParam Set<UUID> accountIds) {
         try {
+            String request = "Get /transactions/accounts?accountIds=" + accountIds;
             transactionService.sendLog(request, "Request");
-            TransactionResponse response = transactionService.executeTransfer(request);
+            Map<UUID, TransactionPage> response = transactionService.getTransactionsByAccounts(accountIds);
             transactionService.sendLog(response, "Response");
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
-            log.error("Transfer execution failed: {}", e.getMessage());
+            log.error("Bulk transaction retrieval failed: {}", e.getMessage());
             ErrorResponse response = ErrorResponse.builder()
                     .status(HttpStatus.BAD_REQUEST.value())
                     .error("Bad Request")
@@ -80,4 +175,59 @@ public class TransactionController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-} 
\ No newline at end of file
+    
+    @GetMapping("/accounts/{accountId}/page")
+    public ResponseEntity<?> getAccountTransactionsPage(@PathVariable UUID accountId,
+                                                        @RequestParam(required = false) String cursor,
+                                                        @RequestParam(defaultValue = "50") int limit) {
+        try {
+            String request = "Get /transactions/accounts/" + accountId + "/page?cursor=" + cursor + "&limit=" + limit;
+            transactionService.sendLog(request, "Request");
+            TransactionPage response = transactionService.getAccountTransactionsPage(accountId, cursor, limit);
+            transactionService.sendLog(response, "Response");
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.error("Transaction page retrieval failed: {}", e.getMessage());
+            ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.BAD_REQUEST.value())
+                    .error("Bad Request")
+                    .message(e.getMessage())
+                    .build();
+            transactionService.sendLog(response, "Response");
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (RuntimeException e) {
+            log.error("Transaction page retrieval failed: {}", e.getMessage());
+            ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.NOT_FOUND.value())
+                    .error("Not Found")
+                    .message(e.getMessage())
+                    .build();
+            transactionService.sendLog(response, "Response");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+    
+    @GetMapping("/accounts/{accountId}/export")
+    public ResponseEntity<?> exportAccountTransactions(@PathVariable UUID accountId) {
+        try {
+            String request = "Get /transactions/accounts/" + accountId + "/export";
+            transactionService.sendLog(request, "Request");
+            if (!transactionService.accountExists(accountId)) {
+                throw new RuntimeException("Account not found: " + accountId);
+            }
+            StreamingResponseBody body = outputStream -> transactionService.exportAccountTransactions(accountId, outputStream);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(body);
+        } catch (RuntimeException e) {
+            log.error("Transaction export failed: {}", e.getMessage());
+            ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.NOT_FOUND.value())
+                    .error("Not Found")
+                    .message(e.getMessage())
+                    .build();
+            transactionService.sendLog(response, "Response");
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+}
\ No newline at end of file
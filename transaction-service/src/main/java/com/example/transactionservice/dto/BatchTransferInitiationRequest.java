@@ -0,0 +1,16 @@
+package com.example.transactionservice.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BatchTransferInitiationRequest {
+    
+    @NotEmpty(message = "At least one transfer is required")
+    @Size(max = 1000, message = "A batch cannot contain more than 1000 transfers")
+    private List<@Valid TransferInitiationRequest> transfers;
+}
@@ -0,0 +1,20 @@
+package com.example.transactionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionPage {
+    private List<TransactionResponse> transactions;
+    /** Opaque cursor for the next page, absent on the last page */
+    private String nextCursor;
+}
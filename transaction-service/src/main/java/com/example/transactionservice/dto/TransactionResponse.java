@@ -24,4 +24,5 @@ public class TransactionResponse {
     private String description;
     private LocalDateTime timestamp;
     private TransactionStatus status;
+    private String message;
 } 
\ No newline at end of file
@@ -1,5 +1,5 @@
 package com.example.transactionservice.enums;
 
 public enum TransactionStatus {
-    INITIATED, SUCCESS, FAILED
+    INITIATED, PENDING, SUCCESS, FAILED
 }
@@ -0,0 +1,55 @@
+package com.example.transactionservice.model;
+
+import com.example.transactionservice.enums.IdempotencyStatus;
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Response recorded for a client-supplied Idempotency-Key, replayed to retries of the same request
+ * until it expires.
+ */
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class IdempotencyRecord {
+    
+    @Id
+    @Column(length = 255)
+    private String idempotencyKey;
+    
+    @Column(nullable = false, length = 64)
+    private String operation;
+    
+    // SHA-256 of the request body, to reject a key reused for a different request
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private IdempotencyStatus status;
+    
+    // Identifies the request holding the claim; only that request may complete or release it
+    @Column
+    private UUID claimToken;
+    
+    @Column
+    private Integer responseStatus;
+    
+    @Column(columnDefinition = "TEXT")
+    private String responseBody;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -13,7 +13,10 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_from_account_ts", columnList = "from_account_id, timestamp DESC, transaction_id DESC"),
+        @Index(name = "idx_transactions_to_account_ts", columnList = "to_account_id, timestamp DESC, transaction_id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,70 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    
+    /**
+     * Claims the key for a request about to be processed.
+     * @return 1 if the key was claimed, 0 if a record for it already exists
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys " +
+            "(idempotency_key, operation, request_hash, status, claim_token, created_at, expires_at) " +
+            "VALUES (:key, :operation, :requestHash, 'IN_PROGRESS', :claimToken, :createdAt, :expiresAt) " +
+            "ON CONFLICT DO NOTHING",
+            nativeQuery = true)
+    int reserve(@Param("key") String key,
+                @Param("operation") String operation,
+                @Param("requestHash") String requestHash,
+                @Param("claimToken") UUID claimToken,
+                @Param("createdAt") LocalDateTime createdAt,
+                @Param("expiresAt") LocalDateTime expiresAt);
+    
+    /**
+     * Records the response, if the claim is still held by {@code claimToken}.
+     * @return 0 if the claim was taken over in the meantime
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.example.transactionservice.enums.IdempotencyStatus.COMPLETED, " +
+            "r.responseStatus = ?3, r.responseBody = ?4 WHERE r.idempotencyKey = ?1 AND r.claimToken = ?2 " +
+            "AND r.status = com.example.transactionservice.enums.IdempotencyStatus.IN_PROGRESS")
+    int complete(String key, UUID claimToken, int responseStatus, String responseBody);
+    
+    /**
+     * Drops a claim whose request did not produce a replayable response, so a retry can run it again.
+     * A claim taken over by another request is left alone.
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = ?1 AND r.claimToken = ?2 " +
+            "AND r.status = com.example.transactionservice.enums.IdempotencyStatus.IN_PROGRESS")
+    int release(String key, UUID claimToken);
+    
+    /**
+     * Deletes the record for the key if it has expired, or if it is still in progress after the
+     * claim timeout (the instance that claimed it died before completing it).
+     */
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = ?1 AND (r.expiresAt < ?2 " +
+            "OR (r.status = com.example.transactionservice.enums.IdempotencyStatus.IN_PROGRESS AND r.createdAt < ?3))")
+    int deleteIfAbandoned(String key, LocalDateTime now, LocalDateTime claimedBefore);
+    
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < ?1")
+    int deleteExpired(LocalDateTime now);
+}
@@ -0,0 +1,23 @@
+package com.example.transactionservice.repository;
+
+import com.example.transactionservice.model.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+    
+    /**
+     * Oldest unpublished events, locked for the current transaction. Rows already locked by
+     * another relay instance are skipped rather than waited on, so several instances can drain
+     * the outbox in parallel without publishing the same event twice.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY created_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
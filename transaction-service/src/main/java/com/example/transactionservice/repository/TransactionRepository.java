@@ -1,14 +1,143 @@
 package com.example.transactionservice.repository;
 
+import com.example.transactionservice.enums.TransactionStatus;
 import com.example.transactionservice.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
     
-    List<Transaction> findByFromAccountIdOrToAccountIdOrderByTimestampDesc(UUID fromAccountId, UUID toAccountId);
-} 
\ No newline at end of file
+    /*
+     * History queries are written as a UNION ALL of an outgoing and an incoming branch instead of
+     * "from_account_id = ? OR to_account_id = ?". Each branch is an index range scan on
+     * (from|to_account_id, timestamp DESC, transaction_id DESC) that already returns rows in order,
+     * so the planner can merge both branches instead of scanning and sorting the whole table.
+     * The incoming branch skips self-transfers, which the outgoing branch already returns.
+     */
+    
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT t.* FROM transactions t WHERE t.from_account_id = :accountId) " +
+            "UNION ALL " +
+            "(SELECT t.* FROM transactions t WHERE t.to_account_id = :accountId AND t.from_account_id <> :accountId)" +
+            ") h ORDER BY h.timestamp DESC, h.transaction_id DESC",
+            nativeQuery = true)
+    List<Transaction> findHistory(@Param("accountId") UUID accountId);
+    
+    /**
+     * First page of an account's history, ordered by (timestamp, transactionId) descending.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT t.* FROM transactions t WHERE t.from_account_id = :accountId " +
+            "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT t.* FROM transactions t WHERE t.to_account_id = :accountId AND t.from_account_id <> :accountId " +
+            "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT :limit)" +
+            ") h ORDER BY h.timestamp DESC, h.transaction_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findHistoryPage(@Param("accountId") UUID accountId, @Param("limit") int limit);
+    
+    /**
+     * Keyset page: the entries strictly after the (timestamp, transactionId) cursor.
+     */
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT t.* FROM transactions t WHERE t.from_account_id = :accountId " +
+            "AND (t.timestamp, t.transaction_id) < (:timestamp, :transactionId) " +
+            "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT :limit) " +
+            "UNION ALL " +
+            "(SELECT t.* FROM transactions t WHERE t.to_account_id = :accountId AND t.from_account_id <> :accountId " +
+            "AND (t.timestamp, t.transaction_id) < (:timestamp, :transactionId) " +
+            "ORDER BY t.timestamp DESC, t.transaction_id DESC LIMIT :limit)" +
+            ") h ORDER BY h.timestamp DESC, h.transaction_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<Transaction> findHistoryPageAfter(@Param("accountId") UUID accountId,
+                                           @Param("timestamp") LocalDateTime timestamp,
+                                           @Param("transactionId") UUID transactionId,
+                                           @Param("limit") int limit);
+    
+    /**
+     * Full history as a cursor-backed stream; must be consumed inside a transaction and closed.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query(value = "SELECT * FROM (" +
+            "(SELECT t.* FROM transactions t WHERE t.from_account_id = :accountId) " +
+            "UNION ALL " +
+            "(SELECT t.* FROM transactions t WHERE t.to_account_id = :accountId AND t.from_account_id <> :accountId)" +
+            ") h ORDER BY h.timestamp DESC, h.transaction_id DESC",
+            nativeQuery = true)
+    Stream<Transaction> streamHistory(@Param("accountId") UUID accountId);
+    
+    /**
+     * Latest history of several accounts in one statement: the same outgoing/incoming UNION ALL as
+     * above, over IN lists, with the account each row was matched for selected as account_id and
+     * numbered per account, so at most {@code limit} rows are returned for every account.
+     * Rows come ordered by account, then (timestamp, transactionId) descending.
+     */
+    @Query(value = "SELECT r.account_id AS accountId, r.transaction_id AS transactionId, " +
+            "r.from_account_id AS fromAccountId, r.to_account_id AS toAccountId, r.amount AS amount, " +
+            "r.description AS description, r.timestamp AS timestamp, r.status AS status FROM (" +
+            "SELECT h.*, ROW_NUMBER() OVER (PARTITION BY h.account_id " +
+            "ORDER BY h.timestamp DESC, h.transaction_id DESC) AS position FROM (" +
+            "(SELECT t.from_account_id AS account_id, t.* FROM transactions t WHERE t.from_account_id IN (:accountIds)) " +
+            "UNION ALL " +
+            "(SELECT t.to_account_id AS account_id, t.* FROM transactions t " +
+            "WHERE t.to_account_id IN (:accountIds) AND t.from_account_id <> t.to_account_id)" +
+            ") h) r WHERE r.position <= :limit " +
+            "ORDER BY r.account_id, r.timestamp DESC, r.transaction_id DESC",
+            nativeQuery = true)
+    List<AccountHistoryRow> findLatestHistory(@Param("accountIds") Collection<UUID> accountIds, @Param("limit") int limit);
+    
+    /**
+     * A transaction as listed in the history of {@code accountId}, one of its two accounts.
+     */
+    interface AccountHistoryRow {
+        UUID getAccountId();
+        UUID getTransactionId();
+        UUID getFromAccountId();
+        UUID getToAccountId();
+        BigDecimal getAmount();
+        String getDescription();
+        LocalDateTime getTimestamp();
+        TransactionStatus getStatus();
+    }
+    
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = ?2 WHERE t.transactionId IN ?1")
+    int updateStatus(Collection<UUID> transactionIds, TransactionStatus status);
+    
+    /**
+     * Changes the status only if it still is {@code expected}.
+     * @return 1 if the transition was made, 0 if the transaction was not in the expected status
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = ?3 WHERE t.transactionId = ?1 AND t.status = ?2")
+    int transitionStatus(UUID transactionId, TransactionStatus expected, TransactionStatus target);
+    
+    /**
+     * Moves a PENDING transaction to its final status. Redelivered outcomes match no row.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE Transaction t SET t.status = ?2 WHERE t.transactionId = ?1 " +
+            "AND t.status = com.example.transactionservice.enums.TransactionStatus.PENDING")
+    int completePending(UUID transactionId, TransactionStatus status);
+}
\ No newline at end of file
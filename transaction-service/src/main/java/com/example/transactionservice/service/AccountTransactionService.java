@@ -1,24 +1,37 @@
 package com.example.transactionservice.service;
 
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
 import com.example.accountservice.dto.AccountResponse;
+import com.example.accountservice.dto.BatchTransferRequest;
 import com.example.accountservice.dto.TransferRequest;
+import com.example.accountservice.dto.TransferResponse;
+import com.example.userservice.dto.ErrorResponse;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.UUID;
-import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AccountTransactionService {
     
+    private static final String ACCOUNT_SERVICE = "account-service";
+    
     private final WebClient webClient;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
     
     @Value("${account.service.url}")
     private String accountServiceUrl;
@@ -45,56 +58,13 @@ public class AccountTransactionService {
         log.info("Account validation successful for transfer: {} -> {}", fromAccountId, toAccountId);
     }
     
-    /**
-     * Validates that the from account has sufficient funds
-     * @param fromAccountId The source account ID
-     * @param amount The transfer amount
-     * @throws RuntimeException if insufficient funds
-     */
-    public void validateSufficientFunds(UUID fromAccountId, BigDecimal amount) {
-        log.info("Validating sufficient funds: account={}, amount={}", fromAccountId, amount);
-        
-        try {
-            // Get account details from Account Service
-            AccountResponse accountDetails = webClient.get()
-                    .uri(accountServiceUrl + "/accounts/" + fromAccountId)
-                    .retrieve()
-                    .bodyToMono(AccountResponse.class)
-                    .block();
-            if (accountDetails == null) {
-                throw new RuntimeException("Account not found: " + fromAccountId);
-            }
-
-            BigDecimal currentBalance = accountDetails.getBalance();
-            
-            if (currentBalance.compareTo(amount) < 0) {
-                String errorMessage = String.format(
-                    "Insufficient funds. Account balance: %s, Transfer amount: %s", 
-                    currentBalance, amount
-                );
-                log.error(errorMessage);
-                throw new RuntimeException(errorMessage);
-            }
-            
-            log.info("Sufficient funds validated. Balance: {}, Transfer amount: {}", currentBalance, amount);
-            
-        } catch (WebClientResponseException.NotFound e) {
-            throw new RuntimeException("Account not found: " + fromAccountId);
-        } catch (WebClientResponseException e) {
-            log.error("Error calling Account Service: {}", e.getMessage());
-            throw new RuntimeException("Error validating account: " + e.getMessage());
-        } catch (Exception e) {
-            log.error("Unexpected error during fund validation: {}", e.getMessage());
-            throw new RuntimeException("Error validating sufficient funds: " + e.getMessage());
-        }
-    }
-    
     public boolean validateAccountExists(UUID accountId) {
         try {
             webClient.get()
-                    .uri(accountServiceUrl + "/accounts/" + accountId)
+                    .uri(accountServiceUrl + "/accounts/{accountId}", accountId)
                     .retrieve()
                     .bodyToMono(AccountResponse.class)
+                    .transform(this::protect)
                     .block();
             
             return true;
@@ -106,30 +76,88 @@ public class AccountTransactionService {
         }
     }
 
-    public void updateAccountsBalance(UUID fromAccountId, UUID toAccountId, BigDecimal amount) {
-        log.info("Updating accounts balance: from={}, to={}, amount={}", fromAccountId, toAccountId, amount);
+    /**
+     * Executes the transfer in a single Account Service call. The Account Service
+     * checks the available funds and applies the debit/credit in one transaction.
+     * @param fromAccountId The source account ID
+     * @param toAccountId The destination account ID
+     * @param amount The transfer amount
+     * @return the post-transfer balances of both accounts
+     * @throws RuntimeException if the transfer was rejected or the call failed
+     */
+    public TransferResponse transferFunds(UUID fromAccountId, UUID toAccountId, BigDecimal amount) {
+        log.info("Transferring funds: from={}, to={}, amount={}", fromAccountId, toAccountId, amount);
 
         try {
-            // Call Account Service to update balances
             TransferRequest transferRequest = new TransferRequest(fromAccountId, toAccountId, amount);
 
-            // Call Account Service
-            var response = webClient.put()
+            TransferResponse response = webClient.put()
                     .uri(accountServiceUrl + "/accounts/transfer")
                     .bodyValue(transferRequest)
                     .retrieve()
-                    .bodyToMono(Map.class)
+                    .bodyToMono(TransferResponse.class)
+                    .transform(this::protect)
                     .block();
 
-            if (response != null && response.get("error") == null) {
-                log.info("Accounts balance updated successfully: from={}, to={}, amount={}", fromAccountId, toAccountId, amount);
-            } else {
-                log.error("Error updating accounts balance: {}", response.get("error"));
-                throw new RuntimeException("Error updating accounts balance: " + response.get("error"));
+            if (response == null) {
+                throw new RuntimeException("Empty response from Account Service");
             }
+
+            log.info("Funds transferred successfully: from={} (balance {}), to={} (balance {})",
+                    fromAccountId, response.getFromAccountBalance(), toAccountId, response.getToAccountBalance());
+            return response;
+        } catch (WebClientResponseException e) {
+            // Account Service rejects the transfer (e.g. insufficient funds) with an ErrorResponse body
+            ErrorResponse error = e.getResponseBodyAs(ErrorResponse.class);
+            String reason = error != null && error.getMessage() != null ? error.getMessage() : e.getMessage();
+            log.error("Account Service rejected transfer: {}", reason);
+            throw new RuntimeException(reason);
         } catch (Exception e) {
-            log.error("Error updating accounts balance: {}", e.getMessage());
-            throw new RuntimeException("Error updating accounts balance: " + e.getMessage());
+            log.error("Error transferring funds: {}", e.getMessage());
+            throw new RuntimeException("Error transferring funds: " + e.getMessage());
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Executes a batch of transfers in a single Account Service call.
+     * @param transfers The transfers to apply, in order
+     * @return one result per transfer, in request order
+     * @throws RuntimeException if the batch call itself failed
+     */
+    public List<TransferResponse> transferFundsBatch(List<TransferRequest> transfers) {
+        log.info("Transferring funds for batch of {} transfers", transfers.size());
+
+        try {
+            List<TransferResponse> response = webClient.put()
+                    .uri(accountServiceUrl + "/accounts/transfer/batch")
+                    .bodyValue(new BatchTransferRequest(transfers))
+                    .retrieve()
+                    .bodyToMono(new ParameterizedTypeReference<List<TransferResponse>>() {})
+                    .transform(this::protect)
+                    .block();
+
+            if (response == null || response.size() != transfers.size()) {
+                throw new RuntimeException("Unexpected batch response from Account Service");
+            }
+            return response;
+        } catch (WebClientResponseException e) {
+            ErrorResponse error = e.getResponseBodyAs(ErrorResponse.class);
+            String reason = error != null && error.getMessage() != null ? error.getMessage() : e.getMessage();
+            log.error("Account Service rejected transfer batch: {}", reason);
+            throw new RuntimeException(reason);
+        } catch (Exception e) {
+            log.error("Error transferring funds for batch: {}", e.getMessage());
+            throw new RuntimeException("Error transferring funds for batch: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Guards a call to the Account Service: fails fast once the circuit is open or the
+     * bulkhead is full, instead of tying up a request thread on a slow downstream.
+     */
+    private <T> Mono<T> protect(Mono<T> call) {
+        return call
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(ACCOUNT_SERVICE)))
+                .transformDeferred(BulkheadOperator.of(bulkheadRegistry.bulkhead(ACCOUNT_SERVICE)));
+    }
+}
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.enums.IdempotencyStatus;
+import com.example.transactionservice.model.IdempotencyRecord;
+import com.example.transactionservice.repository.IdempotencyRecordRepository;
+import com.example.userservice.dto.ErrorResponse;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST endpoints safe to retry. The first request with a given Idempotency-Key claims the key
+ * and its response is recorded; later requests with the same key get that response replayed without
+ * running the operation again, or 409 while the first one is still being processed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotencyService {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${transactions.idempotency.ttl:24h}")
+    private Duration ttl;
+    
+    @Value("${transactions.idempotency.claim-timeout:60s}")
+    private Duration claimTimeout;
+    
+    /**
+     * Runs the operation once per idempotency key.
+     * @param key The Idempotency-Key header, or null to run the operation unconditionally
+     * @param operation The endpoint, so a key cannot be replayed against another endpoint
+     * @param request The request body, fingerprinted to detect a key reused for a different request
+     * @param action Produces the response. Only successful (2xx) responses are recorded: the controller
+     *               reports downstream outages as 400 too, and a retry after one should run again
+     */
+    public ResponseEntity<?> execute(String key, String operation, Object request, Supplier<ResponseEntity<?>> action) {
+        if (key == null) {
+            return action.get();
+        }
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return error(HttpStatus.BAD_REQUEST, "Bad Request",
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        
+        String requestHash = fingerprint(request);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            LocalDateTime now = LocalDateTime.now();
+            UUID claimToken = UUID.randomUUID();
+            if (idempotencyRecordRepository.reserve(key, operation, requestHash, claimToken, now, now.plus(ttl)) == 1) {
+                return executeClaimed(key, claimToken, action);
+            }
+            
+            IdempotencyRecord existing = idempotencyRecordRepository.findById(key).orElse(null);
+            if (existing == null) {
+                // Released or purged since the insert attempt
+                continue;
+            }
+            if (!existing.getOperation().equals(operation) || !existing.getRequestHash().equals(requestHash)) {
+                return error(HttpStatus.UNPROCESSABLE_ENTITY, "Unprocessable Entity",
+                        HEADER + " " + key + " was already used for a different request");
+            }
+            if (idempotencyRecordRepository.deleteIfAbandoned(key, now, now.minus(claimTimeout)) == 1) {
+                log.warn("Idempotency key {} expired or abandoned, claiming it again", key);
+                continue;
+            }
+            if (existing.getStatus() == IdempotencyStatus.IN_PROGRESS) {
+                return error(HttpStatus.CONFLICT, "Conflict",
+                        "A request with " + HEADER + " " + key + " is still being processed");
+            }
+            
+            log.info("Replaying recorded response for {} {}", operation, key);
+            meterRegistry.counter("bank.idempotency.replayed", "operation", operation).increment();
+            return ResponseEntity.status(existing.getResponseStatus())
+                    .header(REPLAYED_HEADER, "true")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(existing.getResponseBody());
+        }
+        return error(HttpStatus.CONFLICT, "Conflict",
+                "A request with " + HEADER + " " + key + " is still being processed");
+    }
+    
+    private ResponseEntity<?> executeClaimed(String key, UUID claimToken, Supplier<ResponseEntity<?>> action) {
+        ResponseEntity<?> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            idempotencyRecordRepository.release(key, claimToken);
+            throw e;
+        }
+        
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            idempotencyRecordRepository.release(key, claimToken);
+            return response;
+        }
+        try {
+            if (idempotencyRecordRepository.complete(key, claimToken, response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(response.getBody())) == 0) {
+                // Ran longer than the claim timeout and another request took the key over
+                log.warn("Idempotency key {} was claimed by another request, response not recorded", key);
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Failed to record response for idempotency key {}: {}", key, e.getMessage());
+            idempotencyRecordRepository.release(key, claimToken);
+        }
+        return response;
+    }
+    
+    @Scheduled(fixedDelayString = "${transactions.idempotency.purge-interval:60000}")
+    public void purgeExpired() {
+        int purged = idempotencyRecordRepository.deleteExpired(LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+    
+    private String fingerprint(Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Cannot fingerprint request", e);
+        }
+    }
+    
+    private ResponseEntity<?> error(HttpStatus status, String error, String message) {
+        ErrorResponse response = ErrorResponse.builder()
+                .status(status.value())
+                .error(error)
+                .message(message)
+                .build();
+        return ResponseEntity.status(status).body(response);
+    }
+}
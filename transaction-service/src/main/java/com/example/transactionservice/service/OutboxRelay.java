@@ -0,0 +1,72 @@
+package com.example.transactionservice.service;
+
+import com.example.transactionservice.model.OutboxEvent;
+import com.example.transactionservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Publishes outbox events to Kafka. Each batch is locked, sent and deleted in one database
+ * transaction: if any send fails the transaction rolls back and the batch is retried on the
+ * next run, so events are delivered at least once and consumers must deduplicate.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Value("${transactions.outbox.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${transactions.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+    
+    @Scheduled(fixedDelayString = "${transactions.outbox.poll-interval:200}")
+    public void relay() {
+        Integer published;
+        do {
+            published = transactionTemplate.execute(status -> publishBatch());
+        } while (published != null && published == batchSize);
+    }
+    
+    private int publishBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        
+        // Send the whole batch before waiting, so the producer can group the records into few requests
+        CompletableFuture<?>[] sends = events.stream()
+                .map(event -> kafkaTemplate.send(event.getTopic(), event.getMessageKey(), event.getPayload()))
+                .toArray(CompletableFuture[]::new);
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while publishing outbox batch");
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Outbox batch of {} events not published, will retry: {}", events.size(), e.getMessage());
+            throw new RuntimeException("Failed to publish outbox batch: " + e.getMessage());
+        }
+        
+        outboxEventRepository.deleteAllInBatch(events);
+        log.debug("Published {} outbox events", events.size());
+        return events.size();
+    }
+}
@@ -1,24 +1,51 @@
 package com.example.transactionservice.service;
 
+import com.example.accountservice.dto.TransferCommand;
+import com.example.accountservice.dto.TransferOutcome;
+import com.example.accountservice.dto.TransferRequest;
+import com.example.accountservice.dto.TransferResponse;
+import com.example.transactionservice.dto.TransactionPage;
 import com.example.transactionservice.dto.TransferExecutionRequest;
 import com.example.transactionservice.dto.TransferInitiationRequest;
 import com.example.transactionservice.dto.TransactionResponse;
 import com.example.transactionservice.enums.TransactionStatus;
+import com.example.transactionservice.model.OutboxEvent;
 import com.example.transactionservice.model.Transaction;
+import com.example.transactionservice.repository.OutboxEventRepository;
 import com.example.transactionservice.repository.TransactionRepository;
+import com.example.transactionservice.repository.TransactionRepository.AccountHistoryRow;
+import com.example.userservice.service.AuditLogPublisher;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.Instant;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -26,13 +53,26 @@ import java.util.stream.Collectors;
 public class TransactionService {
     
     private final TransactionRepository transactionRepository;
+    private final OutboxEventRepository outboxEventRepository;
     private final AccountTransactionService accountTransactionService;
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final AuditLogPublisher auditLogPublisher;
     private final ObjectMapper objectMapper;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
     
     @Value("${account.service.url}")
     private String accountServiceUrl;
     
+    @Value("${transactions.page.max-size:200}")
+    private int maxPageSize;
+    
+    @Value("${transactions.bulk.max-accounts:100}")
+    private int maxBulkAccounts;
+    
+    @Value("${transactions.bulk.per-account-limit:50}")
+    private int bulkPerAccountLimit;
+    
+    @Timed(value = "bank.transfer.initiate", histogram = true)
     public TransactionResponse initiateTransfer(TransferInitiationRequest request) {
         log.info("Initiating transfer: {} -> {}, amount: {}", 
                 request.getFromAccountId(), request.getToAccountId(), request.getAmount());
@@ -58,22 +98,20 @@ public class TransactionService {
                 .build();
     }
     
+    @Timed(value = "bank.transfer.execute", histogram = true)
     public TransactionResponse executeTransfer(TransferExecutionRequest request) {
         log.info("Executing transfer: {}", request.getTransactionId());
         
         Transaction transaction = transactionRepository.findById(request.getTransactionId())
                 .orElseThrow(() -> new RuntimeException("Transaction not found"));
         
-        if (transaction.getStatus() != TransactionStatus.INITIATED) {
-            throw new RuntimeException("Transaction is not in INITIATED status");
-        }
+        // Claim the transaction before moving any money, so a concurrent execution or submission
+        // of the same transaction cannot also pass the INITIATED check
+        claimInitiated(transaction.getTransactionId());
         
         try {
-            // Validate sufficient funds before executing transfer
-            accountTransactionService.validateSufficientFunds(transaction.getFromAccountId(), transaction.getAmount());
-            
-            // Call Account Service to update balances
-            accountTransactionService.updateAccountsBalance(transaction.getFromAccountId(), transaction.getToAccountId(), transaction.getAmount());
+            // Single Account Service call: funds check and debit/credit happen in one transaction
+            accountTransactionService.transferFunds(transaction.getFromAccountId(), transaction.getToAccountId(), transaction.getAmount());
             
             // Update transaction status
             transaction.setStatus(TransactionStatus.SUCCESS);
@@ -95,11 +133,146 @@ public class TransactionService {
             transaction.setStatus(TransactionStatus.FAILED);
             Transaction savedTransaction = transactionRepository.save(transaction);
             log.info("Transfer failed. Transaction ID: {}", savedTransaction.getTransactionId());
+            failedTransfers("single", 1);
             
             throw new RuntimeException("Transfer execution failed: " + e.getMessage());
         }
     }
     
+    /**
+     * Submits an initiated transfer for asynchronous execution. The status change to PENDING and the
+     * outbox event carrying the transfer command are committed together, so the command is published
+     * if and only if the submission is; the caller polls {@link #getTransaction} for the outcome.
+     * @param request The transaction to submit
+     * @return the transaction, in PENDING status
+     */
+    @Transactional
+    public TransactionResponse submitTransfer(TransferExecutionRequest request) {
+        log.info("Submitting transfer: {}", request.getTransactionId());
+        
+        Transaction transaction = transactionRepository.findById(request.getTransactionId())
+                .orElseThrow(() -> new RuntimeException("Transaction not found"));
+        
+        claimInitiated(transaction.getTransactionId());
+        
+        outboxEventRepository.save(transferCommandEvent(transaction));
+        
+        log.info("Transfer submitted. Transaction ID: {}", transaction.getTransactionId());
+        
+        return TransactionResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .status(TransactionStatus.PENDING)
+                .timestamp(transaction.getTimestamp())
+                .build();
+    }
+    
+    /**
+     * Records the outcome reported by the Account Service for a submitted transfer.
+     * Outcomes for transactions that are no longer PENDING (redeliveries) are ignored.
+     */
+    public void completeTransfer(TransferOutcome outcome) {
+        TransactionStatus status = Boolean.TRUE.equals(outcome.getSuccess())
+                ? TransactionStatus.SUCCESS : TransactionStatus.FAILED;
+        
+        if (transactionRepository.completePending(outcome.getTransactionId(), status) == 0) {
+            log.info("Ignoring outcome for transaction {}: not pending", outcome.getTransactionId());
+            return;
+        }
+        
+        if (status == TransactionStatus.FAILED) {
+            log.info("Transfer failed. Transaction ID: {}, reason: {}", outcome.getTransactionId(), outcome.getMessage());
+            failedTransfers("async", 1);
+        } else {
+            log.info("Transfer executed successfully. Transaction ID: {}", outcome.getTransactionId());
+        }
+    }
+    
+    public TransactionResponse getTransaction(UUID transactionId) {
+        log.info("Fetching transaction: {}", transactionId);
+        
+        return transactionRepository.findById(transactionId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new RuntimeException("Transaction not found: " + transactionId));
+    }
+    
+    /**
+     * Initiates and executes a batch of transfers. The transactions are inserted and their
+     * statuses updated with batched statements, and the balances are applied with a single
+     * Account Service call. The transactions are inserted as PENDING, so they cannot be
+     * executed or submitted on their own while the batch call is in flight.
+     * <p>
+     * Each item carries its transaction ID and the Account Service applies it at most once. If
+     * the batch call fails, some chunks may already be committed, so the items are not marked
+     * FAILED: they stay PENDING and a transfer command is queued for each of them in the outbox.
+     * The Account Service applies the items that were not applied yet and reports the recorded
+     * outcome for the others, which settles every item through {@link #completeTransfer}.
+     * @param requests The transfers to execute, in order
+     * @return one response per transfer, in request order
+     */
+    public List<TransactionResponse> executeBatchTransfer(List<TransferInitiationRequest> requests) {
+        log.info("Executing batch of {} transfers", requests.size());
+        
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        List<TransferRequest> transfers = new ArrayList<>(requests.size());
+        for (TransferInitiationRequest request : requests) {
+            Transaction transaction = new Transaction();
+            transaction.setFromAccountId(request.getFromAccountId());
+            transaction.setToAccountId(request.getToAccountId());
+            transaction.setAmount(request.getAmount());
+            transaction.setDescription(request.getDescription());
+            transaction.setStatus(TransactionStatus.PENDING);
+            transactions.add(transaction);
+        }
+        List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+        for (Transaction transaction : savedTransactions) {
+            transfers.add(new TransferRequest(transaction.getFromAccountId(), transaction.getToAccountId(),
+                    transaction.getAmount(), transaction.getTransactionId()));
+        }
+        
+        List<TransferResponse> results;
+        try {
+            results = accountTransactionService.transferFundsBatch(transfers);
+        } catch (Exception e) {
+            // Outcome unknown: earlier chunks may have been applied before the call failed
+            log.error("Batch transfer execution failed, settling {} transfers through the outbox: {}",
+                    savedTransactions.size(), e.getMessage());
+            outboxEventRepository.saveAll(savedTransactions.stream().map(this::transferCommandEvent).toList());
+            throw new RuntimeException("Batch transfer outcome unknown, transactions left PENDING: " + e.getMessage());
+        }
+        
+        List<UUID> succeededIds = new ArrayList<>();
+        List<UUID> failedIds = new ArrayList<>();
+        List<TransactionResponse> responses = new ArrayList<>(savedTransactions.size());
+        for (int i = 0; i < savedTransactions.size(); i++) {
+            Transaction transaction = savedTransactions.get(i);
+            TransferResponse result = results.get(i);
+            boolean success = Boolean.TRUE.equals(result.getSuccess());
+            (success ? succeededIds : failedIds).add(transaction.getTransactionId());
+            
+            responses.add(TransactionResponse.builder()
+                    .transactionId(transaction.getTransactionId())
+                    .fromAccountId(transaction.getFromAccountId())
+                    .toAccountId(transaction.getToAccountId())
+                    .amount(transaction.getAmount())
+                    .description(transaction.getDescription())
+                    .timestamp(transaction.getTimestamp())
+                    .status(success ? TransactionStatus.SUCCESS : TransactionStatus.FAILED)
+                    .message(success ? null : result.getMessage())
+                    .build());
+        }
+        
+        if (!succeededIds.isEmpty()) {
+            transactionRepository.updateStatus(succeededIds, TransactionStatus.SUCCESS);
+        }
+        if (!failedIds.isEmpty()) {
+            transactionRepository.updateStatus(failedIds, TransactionStatus.FAILED);
+            failedTransfers("batch", failedIds.size());
+        }
+        
+        log.info("Batch executed: {} succeeded, {} failed", succeededIds.size(), failedIds.size());
+        return responses;
+    }
+    
     public List<TransactionResponse> getAccountTransactions(UUID accountId) {
         log.info("Fetching transactions for account: {}", accountId);
 
@@ -107,46 +280,206 @@ public class TransactionService {
             throw new RuntimeException("Account not found: " + accountId);
         }
         
-        List<Transaction> transactions = transactionRepository
-                .findByFromAccountIdOrToAccountIdOrderByTimestampDesc(accountId, accountId);
+        List<Transaction> transactions = transactionRepository.findHistory(accountId);
         
         if (transactions.isEmpty()) {
             throw new RuntimeException("No transactions found for account: " + accountId);
         }
         
         return transactions.stream()
-                .map(transaction -> TransactionResponse.builder()
-                        .transactionId(transaction.getTransactionId())
-                        .fromAccountId(transaction.getFromAccountId())
-                        .toAccountId(transaction.getToAccountId())
-                        .amount(transaction.getAmount())
-                        .description(transaction.getDescription())
-                        .timestamp(transaction.getTimestamp())
-                        .status(transaction.getStatus())
-                        .build())
+                .map(this::toResponse)
                 .collect(Collectors.toList());
     }
-    public void sendLog(String message, String messageType) {
-        Map<String, Object> payload = Map.of(
-                "message", message,
-                "messageType", messageType,
-                "dateTime", Instant.now().toString());
-
+    
+    /**
+     * Returns one page of an account's history using keyset pagination on (timestamp, transactionId),
+     * so the cost of a page does not grow with its depth in the history.
+     * @param accountId The account ID
+     * @param cursor The cursor returned with the previous page of the same account, or null for the first page
+     * @param limit The page size, capped at {@code maxPageSize}
+     * @throws IllegalArgumentException if the cursor is malformed or was issued for another account
+     */
+    public TransactionPage getAccountTransactionsPage(UUID accountId, String cursor, int limit) {
+        log.info("Fetching transaction page for account: {}", accountId);
+        int pageSize = Math.max(1, Math.min(limit, maxPageSize));
+        // Fetch one extra row to know whether there is a next page
+        int fetchSize = pageSize + 1;
+        
+        CursorPosition position = cursor == null || cursor.isBlank() ? null : decodeCursor(cursor, accountId);
+        if (!accountTransactionService.validateAccountExists(accountId)) {
+            throw new RuntimeException("Account not found: " + accountId);
+        }
+        
+        List<Transaction> transactions = position == null
+                ? transactionRepository.findHistoryPage(accountId, fetchSize)
+                : transactionRepository.findHistoryPageAfter(accountId, position.timestamp(), position.transactionId(), fetchSize);
+        
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> page = hasMore ? transactions.subList(0, pageSize) : transactions;
+        String nextCursor = null;
+        if (hasMore) {
+            Transaction last = page.get(page.size() - 1);
+            nextCursor = encodeCursor(accountId, last.getTimestamp(), last.getTransactionId());
+        }
+        
+        return TransactionPage.builder()
+                .transactions(page.stream().map(this::toResponse).collect(Collectors.toList()))
+                .nextCursor(nextCursor)
+                .build();
+    }
+    
+    /**
+     * Writes an account's full history as NDJSON (one TransactionResponse per line).
+     * Rows are read through a database cursor and detached as they are written,
+     * so heap use stays flat regardless of the history length.
+     */
+    @Transactional(readOnly = true)
+    public void exportAccountTransactions(UUID accountId, OutputStream outputStream) throws IOException {
+        log.info("Exporting transactions for account: {}", accountId);
+        
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Transaction> transactions = transactionRepository.streamHistory(accountId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)
+                     .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<Transaction> iterator = transactions.iterator();
+            while (iterator.hasNext()) {
+                Transaction transaction = iterator.next();
+                writer.writeValue(generator, toResponse(transaction));
+                entityManager.detach(transaction);
+            }
+            generator.writeRaw('\n');
+        }
+    }
+    
+    public boolean accountExists(UUID accountId) {
+        return accountTransactionService.validateAccountExists(accountId);
+    }
+    
+    /**
+     * The cursor names the account it was issued for, so it cannot be replayed against another one.
+     */
+    private String encodeCursor(UUID accountId, LocalDateTime timestamp, UUID transactionId) {
+        String position = accountId + "|" + timestamp + "|" + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private CursorPosition decodeCursor(String cursor, UUID accountId) {
         try {
-            String json = new ObjectMapper().writeValueAsString(payload);
-            kafkaTemplate.send("logging-topic", json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = position.split("\\|");
+            if (parts.length != 3 || !UUID.fromString(parts[0]).equals(accountId)) {
+                throw new IllegalArgumentException("malformed");
+            }
+            return new CursorPosition(LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+    
+    private record CursorPosition(LocalDateTime timestamp, UUID transactionId) {
+    }
+    
+    /**
+     * Fetches the most recent history of several accounts with a single query, at most
+     * {@code bulkPerAccountLimit} transactions per account. An account whose history is longer
+     * gets a nextCursor, in the format of the paginated history endpoint, to fetch the rest.
+     * A transfer between two of the requested accounts is listed under both.
+     * @param accountIds The accounts to fetch, at most {@code maxBulkAccounts}
+     * @return a page of the latest transactions of each requested account, newest first (empty if none)
+     */
+    public Map<UUID, TransactionPage> getTransactionsByAccounts(Set<UUID> accountIds) {
+        log.info("Fetching transactions for {} accounts", accountIds.size());
+        
+        if (accountIds.isEmpty() || accountIds.size() > maxBulkAccounts) {
+            throw new RuntimeException("Between 1 and " + maxBulkAccounts + " account IDs are required");
         }
+        
+        Map<UUID, List<AccountHistoryRow>> rowsByAccount = new HashMap<>();
+        // One extra row per account tells whether its history goes on
+        for (AccountHistoryRow row : transactionRepository.findLatestHistory(accountIds, bulkPerAccountLimit + 1)) {
+            rowsByAccount.computeIfAbsent(row.getAccountId(), accountId -> new ArrayList<>()).add(row);
+        }
+        
+        Map<UUID, TransactionPage> result = new LinkedHashMap<>();
+        for (UUID accountId : accountIds) {
+            List<AccountHistoryRow> rows = rowsByAccount.getOrDefault(accountId, List.of());
+            boolean hasMore = rows.size() > bulkPerAccountLimit;
+            List<AccountHistoryRow> page = hasMore ? rows.subList(0, bulkPerAccountLimit) : rows;
+            String nextCursor = null;
+            if (hasMore) {
+                AccountHistoryRow last = page.get(page.size() - 1);
+                nextCursor = encodeCursor(accountId, last.getTimestamp(), last.getTransactionId());
+            }
+            result.put(accountId, TransactionPage.builder()
+                    .transactions(page.stream().map(this::toResponse).collect(Collectors.toList()))
+                    .nextCursor(nextCursor)
+                    .build());
+        }
+        return result;
     }
-    public void  sendLog(Object json,String messageType) {
+    
+    /**
+     * Outbox event carrying the transfer command for a PENDING transaction.
+     */
+    private OutboxEvent transferCommandEvent(Transaction transaction) {
+        TransferCommand command = TransferCommand.builder()
+                .transactionId(transaction.getTransactionId())
+                .fromAccountId(transaction.getFromAccountId())
+                .toAccountId(transaction.getToAccountId())
+                .amount(transaction.getAmount())
+                .build();
+        OutboxEvent event = new OutboxEvent();
+        event.setTopic(TransferCommand.TOPIC);
+        // Keyed by the debited account so commands touching it are applied in submission order
+        event.setMessageKey(transaction.getFromAccountId().toString());
         try {
-            String flattenJSON = objectMapper.writeValueAsString(json);
-            log.info("Sending log to Kafka: {}", flattenJSON);
-            sendLog(flattenJSON, messageType);
+            event.setPayload(objectMapper.writeValueAsString(command));
         } catch (JsonProcessingException e) {
-            e.printStackTrace();
+            throw new RuntimeException("Failed to serialize transfer command: " + e.getMessage());
         }
-
+        return event;
+    }
+    
+    /**
+     * Atomically moves the transaction from INITIATED to PENDING. The conditional update locks the
+     * row, so of two concurrent callers exactly one gets the transaction and the other is rejected.
+     */
+    private void claimInitiated(UUID transactionId) {
+        if (transactionRepository.transitionStatus(transactionId, TransactionStatus.INITIATED, TransactionStatus.PENDING) == 0) {
+            throw new RuntimeException("Transaction is not in INITIATED status");
+        }
+    }
+    
+    private TransactionResponse toResponse(AccountHistoryRow row) {
+        return TransactionResponse.builder()
+                .transactionId(row.getTransactionId())
+                .fromAccountId(row.getFromAccountId())
+                .toAccountId(row.getToAccountId())
+                .amount(row.getAmount())
+                .description(row.getDescription())
+                .timestamp(row.getTimestamp())
+                .status(row.getStatus())
+                .build();
+    }
+    
+    private TransactionResponse toResponse(Transaction transaction) {
+        return TransactionResponse.builder()
+                .transactionId(transaction.getTransactionId())
+                .fromAccountId(transaction.getFromAccountId())
+                .toAccountId(transaction.getToAccountId())
+                .amount(transaction.getAmount())
+                .description(transaction.getDescription())
+                .timestamp(transaction.getTimestamp())
+                .status(transaction.getStatus())
+                .build();
+    }
+    
+    private void failedTransfers(String mode, int count) {
+        meterRegistry.counter("bank.transfers.failed", "mode", mode).increment(count);
+    }
+    
+    public void sendLog(Object json, String messageType) {
+        auditLogPublisher.publish(json, messageType);
     }
 } 
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.example.transactionservice.service;
+
+import com.example.accountservice.dto.TransferOutcome;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Applies the transfer outcomes published by the Account Service to the submitted transactions.
+ */
+@Component
+@RequiredArgsConstructor
+public class TransferOutcomeListener {
+    
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    
+    @KafkaListener(topics = TransferOutcome.TOPIC,
+            groupId = "transaction-service-transfers",
+            properties = "auto.offset.reset=earliest")
+    public void onTransferOutcome(String message) throws JsonProcessingException {
+        transactionService.completeTransfer(objectMapper.readValue(message, TransferOutcome.class));
+    }
+}
@@ -0,0 +1,5 @@
+-- ddl-auto=update does not widen the enum check constraint Hibernate generated for an existing
+-- transactions table, so restate it with every TransactionStatus value (PENDING: outbox submission)
+ALTER TABLE IF EXISTS transactions DROP CONSTRAINT IF EXISTS transactions_status_check;
+ALTER TABLE IF EXISTS transactions ADD CONSTRAINT transactions_status_check
+    CHECK (status IN ('INITIATED', 'PENDING', 'SUCCESS', 'FAILED'));
@@ -0,0 +1,105 @@
+package com.example.userservice.config;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.time.Duration;
+
+/**
+ * Circuit breaker and bulkhead registries for calls to other services. Every downstream
+ * service gets its own named instance (created on first use) so that one slow service
+ * cannot exhaust the threads or connections used to call the others.
+ * Shared like {@link WebClientConfig}: imported by the calling services, not scanned.
+ */
+@Slf4j
+public class ResilienceConfig {
+    
+    @Value("${resilience.circuit-breaker.failure-rate-threshold:50}")
+    private float failureRateThreshold;
+    
+    @Value("${resilience.circuit-breaker.slow-call-rate-threshold:50}")
+    private float slowCallRateThreshold;
+    
+    @Value("${resilience.circuit-breaker.slow-call-duration-threshold:2s}")
+    private Duration slowCallDurationThreshold;
+    
+    @Value("${resilience.circuit-breaker.sliding-window-size:20}")
+    private int slidingWindowSize;
+    
+    @Value("${resilience.circuit-breaker.minimum-number-of-calls:10}")
+    private int minimumNumberOfCalls;
+    
+    @Value("${resilience.circuit-breaker.wait-duration-in-open-state:10s}")
+    private Duration waitDurationInOpenState;
+    
+    @Value("${resilience.circuit-breaker.permitted-calls-in-half-open-state:3}")
+    private int permittedCallsInHalfOpenState;
+    
+    @Value("${resilience.bulkhead.max-concurrent-calls:50}")
+    private int maxConcurrentCalls;
+    
+    @Value("${resilience.bulkhead.max-wait-duration:0ms}")
+    private Duration maxWaitDuration;
+    
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(slowCallRateThreshold)
+                .slowCallDurationThreshold(slowCallDurationThreshold)
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .waitDurationInOpenState(waitDurationInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(permittedCallsInHalfOpenState)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                // A 4xx is the downstream answering correctly (e.g. not found), not an outage
+                .recordException(e -> !(e instanceof WebClientResponseException responseException
+                        && responseException.getStatusCode().is4xxClientError()))
+                .build();
+        
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        registry.getEventPublisher().onEntryAdded(event -> recordStateTransitions(event.getAddedEntry(), meterRegistry));
+        return registry;
+    }
+    
+    @Bean
+    public BulkheadRegistry bulkheadRegistry() {
+        return BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWaitDuration)
+                .build());
+    }
+    
+    /**
+     * State, call outcome and bulkhead saturation metrics for every named instance.
+     */
+    @Bean
+    public MeterBinder resilienceMetrics(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        return registry -> {
+            TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(registry);
+            TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(registry);
+        };
+    }
+    
+    private void recordStateTransitions(CircuitBreaker circuitBreaker, MeterRegistry meterRegistry) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            log.warn("Circuit breaker '{}' changed state: {}",
+                    event.getCircuitBreakerName(), event.getStateTransition());
+            meterRegistry.counter("resilience4j.circuitbreaker.transitions",
+                    "name", event.getCircuitBreakerName(),
+                    "transition", event.getStateTransition().name()).increment();
+        });
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.userservice.config;
+
+import io.opentelemetry.exporter.logging.otlp.OtlpJsonLoggingSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Local span export, for runs without a tracing backend. Shared by all services, which pull it
+ * in with {@code @Import(TracingConfig.class)}.
+ * Tests can register an OpenTelemetry {@code InMemorySpanExporter} bean the same way: every
+ * {@link SpanExporter} bean receives the finished spans.
+ */
+@Configuration
+public class TracingConfig {
+    
+    /**
+     * Writes every finished span as one OTLP JSON line to the
+     * {@code io.opentelemetry.exporter.logging.otlp} logger.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.export.logging.enabled", havingValue = "true")
+    public SpanExporter loggingSpanExporter() {
+        return OtlpJsonLoggingSpanExporter.create();
+    }
+}
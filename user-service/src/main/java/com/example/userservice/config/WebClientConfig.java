@@ -0,0 +1,82 @@
+package com.example.userservice.config;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Inter-service HTTP client: a bounded Reactor Netty connection pool per downstream host,
+ * with connect/response timeouts so that a slow service fails calls instead of hanging them.
+ * All settings live under {@code http.client.*}.
+ * Shared by the services that call other services, which pull it in with
+ * {@code @Import(WebClientConfig.class)}. It is deliberately not a {@code @Configuration},
+ * so user-service's own component scan (it calls no other service) does not pick it up.
+ */
+public class WebClientConfig {
+    
+    @Value("${http.client.max-connections:200}")
+    private int maxConnections;
+    
+    @Value("${http.client.pending-acquire-max-count:1000}")
+    private int pendingAcquireMaxCount;
+    
+    @Value("${http.client.pending-acquire-timeout:2s}")
+    private Duration pendingAcquireTimeout;
+    
+    @Value("${http.client.max-idle-time:30s}")
+    private Duration maxIdleTime;
+    
+    @Value("${http.client.max-life-time:5m}")
+    private Duration maxLifeTime;
+    
+    @Value("${http.client.connect-timeout:1s}")
+    private Duration connectTimeout;
+    
+    @Value("${http.client.response-timeout:5s}")
+    private Duration responseTimeout;
+    
+    @Value("${http.client.compression:true}")
+    private boolean compression;
+    
+    @Value("${http.client.h2c:false}")
+    private boolean h2c;
+    
+    @Value("${http.client.metrics-enabled:false}")
+    private boolean metricsEnabled;
+    
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider() {
+        return ConnectionProvider.builder("inter-service")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(maxIdleTime)
+                .metrics(metricsEnabled)
+                .build();
+    }
+    
+    @Bean
+    public WebClient webClient(WebClient.Builder builder, ConnectionProvider connectionProvider) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .keepAlive(true)
+                .responseTimeout(responseTimeout)
+                .compress(compression);
+        if (h2c) {
+            httpClient = httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+        }
+        return builder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .build();
+    }
+}
@@ -9,11 +9,15 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.common.protocol.types.Field;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/users")
@@ -25,42 +29,28 @@ public class UserController {
     private final UserService userService;
     
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody UserRegistrationRequest request) {
-        try {
-            userService.sendLog(request,"Request");
-            UserResponse response = userService.registerUser(request);
-            userService.sendLog(response,"Response");
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
-        } catch (RuntimeException e) {
-            log.error("Registration failed: {}", e.getMessage());
-            ErrorResponse response = ErrorResponse.builder()
-                    .status(HttpStatus.CONFLICT.value())
-                    .error("Conflict")
-                    .message(e.getMessage())
-                    .build();
-            userService.sendLog(response,"Response");
-            return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
-        }
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody UserRegistrationRequest request) {
+        userService.sendLog(request,"Request");
+        // Starting from a completed future turns the validation failures thrown before hashing into a failed future
+        return CompletableFuture.completedFuture(request)
+                .thenCompose(userService::registerUser)
+                .<ResponseEntity<?>>thenApply(response -> {
+                    userService.sendLog(response,"Response");
+                    return ResponseEntity.status(HttpStatus.CREATED).body(response);
+                })
+                .exceptionally(e -> failure("Registration failed", e, HttpStatus.CONFLICT, "Conflict"));
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@Valid @RequestBody UserLoginRequest request) {
-        try {
-            userService.sendLog(request, "Request");
-            UserResponse response = userService.loginUser(request);
-            userService.sendLog(response, "Response");
-            return ResponseEntity.ok(response);
-        } catch (RuntimeException e) {
-            log.error("Login failed: {}", e.getMessage());
-            ErrorResponse response = ErrorResponse.builder()
-                    .status(HttpStatus.UNAUTHORIZED.value())
-                    .error("Unauthorized")
-                    .message(e.getMessage())
-                    .build();
-            userService.sendLog(response, "Response");
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(response);
-        }
+    public CompletableFuture<ResponseEntity<?>> loginUser(@Valid @RequestBody UserLoginRequest request) {
+        userService.sendLog(request, "Request");
+        return CompletableFuture.completedFuture(request)
+                .thenCompose(userService::loginUser)
+                .<ResponseEntity<?>>thenApply(response -> {
+                    userService.sendLog(response, "Response");
+                    return ResponseEntity.ok(response);
+                })
+                .exceptionally(e -> failure("Login failed", e, HttpStatus.UNAUTHORIZED, "Unauthorized"));
     }
     
     @GetMapping("/{userId}/profile")
@@ -83,4 +73,31 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
-} 
\ No newline at end of file
+    
+    private ResponseEntity<?> failure(String operation, Throwable throwable, HttpStatus status, String error) {
+        Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null
+                ? throwable.getCause() : throwable;
+        log.error("{}: {}", operation, cause.getMessage());
+        
+        if (cause instanceof RejectedExecutionException) {
+            // Password hashing pool saturated: ask the client to back off
+            ErrorResponse response = ErrorResponse.builder()
+                    .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                    .error("Too Many Requests")
+                    .message("Too many password operations in progress, retry later")
+                    .build();
+            userService.sendLog(response, "Response");
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(response);
+        }
+        
+        ErrorResponse response = ErrorResponse.builder()
+                .status(status.value())
+                .error(error)
+                .message(cause.getMessage())
+                .build();
+        userService.sendLog(response, "Response");
+        return ResponseEntity.status(status).body(response);
+    }
+}
\ No newline at end of file
@@ -2,7 +2,10 @@ package com.example.userservice.repository;
 
 import com.example.userservice.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
 import java.util.UUID;
@@ -17,4 +20,12 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     boolean existsByUsername(String username);
     
     boolean existsByEmail(String email);
-} 
\ No newline at end of file
+    
+    /**
+     * Replaces the password hash, unless the password was changed since {@code currentHash} was read.
+     */
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = ?3 WHERE u.userId = ?1 AND u.password = ?2")
+    int updatePasswordHash(UUID userId, String currentHash, String newHash);
+}
\ No newline at end of file
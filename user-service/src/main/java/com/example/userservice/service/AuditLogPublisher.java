@@ -0,0 +1,164 @@
+package com.example.userservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.tracing.CurrentTraceContext;
+import io.micrometer.tracing.TraceContext;
+import io.micrometer.tracing.Tracer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Publishes audit records to the logging topic off the request thread.
+ * Callers only enqueue the payload into a bounded lock-free buffer; a single background
+ * thread serializes the records and hands them to the Kafka producer, which batches them.
+ * The caller's trace context travels with each record, so the record carries the trace id
+ * and the Kafka send is traced as part of the originating request.
+ * Shared by all services, which pull it in with {@code @Import(AuditLogPublisher.class)}.
+ */
+@Component
+@Slf4j
+public class AuditLogPublisher implements MeterBinder {
+
+    public enum OverflowPolicy { DROP, BLOCK }
+
+    private static final String TOPIC = "logging-topic";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final ObjectWriter writer;
+    private final Tracer tracer;
+    private final int capacity;
+    private final int drainBatchSize;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Queue<AuditEntry> buffer = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    public AuditLogPublisher(KafkaTemplate<String, String> kafkaTemplate,
+                             ObjectMapper objectMapper,
+                             Tracer tracer,
+                             @Value("${audit.log.buffer-capacity:10000}") int capacity,
+                             @Value("${audit.log.drain-batch-size:500}") int drainBatchSize,
+                             @Value("${audit.log.overflow-policy:DROP}") OverflowPolicy overflowPolicy) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.writer = objectMapper.writer();
+        this.tracer = tracer;
+        this.capacity = capacity;
+        this.drainBatchSize = drainBatchSize;
+        this.overflowPolicy = overflowPolicy;
+        this.drainer = new Thread(this::drainLoop, "audit-log-drainer");
+        this.drainer.setDaemon(true);
+        this.drainer.start();
+    }
+
+    /**
+     * Enqueues an audit record. No serialization or Kafka I/O happens on the calling thread.
+     * When the buffer is full the record is dropped, or the caller waits for space if the
+     * overflow policy is BLOCK.
+     * @param payload The request/response object, or a plain string message
+     * @param messageType The record type, e.g. "Request" or "Response"
+     * @return false if the record was dropped
+     */
+    public boolean publish(Object payload, String messageType) {
+        AuditEntry entry = new AuditEntry(payload, messageType, Instant.now(), tracer.currentTraceContext().context());
+        while (!tryReserveSlot()) {
+            if (overflowPolicy == OverflowPolicy.DROP || !running) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        buffer.offer(entry);
+        return true;
+    }
+
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("audit.log.queue.depth", depth, AtomicInteger::get)
+                .description("Audit records waiting to be sent to Kafka")
+                .register(registry);
+        FunctionCounter.builder("audit.log.dropped", dropped, AtomicLong::get)
+                .description("Audit records dropped because the buffer was full")
+                .register(registry);
+    }
+
+    private boolean tryReserveSlot() {
+        int current;
+        do {
+            current = depth.get();
+            if (current >= capacity) {
+                return false;
+            }
+        } while (!depth.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private void drainLoop() {
+        while (running || !buffer.isEmpty()) {
+            int drained = 0;
+            AuditEntry entry;
+            while (drained < drainBatchSize && (entry = buffer.poll()) != null) {
+                depth.decrementAndGet();
+                send(entry);
+                drained++;
+            }
+            if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    private void send(AuditEntry entry) {
+        // Restore the publisher's trace context so the producer span and headers join its trace
+        try (CurrentTraceContext.Scope scope = tracer.currentTraceContext().maybeScope(entry.traceContext())) {
+            String traceId = entry.traceContext() != null ? entry.traceContext().traceId() : null;
+            // The payload is nested as a JSON value in the same pass, not serialized to a string first
+            String json = writer.writeValueAsString(
+                    new AuditRecord(entry.payload(), entry.messageType(), entry.dateTime().toString(), traceId));
+            kafkaTemplate.send(TOPIC, json);
+        } catch (Exception e) {
+            log.warn("Failed to publish audit record: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        drainer.join(TimeUnit.SECONDS.toMillis(5));
+        kafkaTemplate.flush();
+    }
+
+    private record AuditEntry(Object payload, String messageType, Instant dateTime, TraceContext traceContext) {
+    }
+
+    private record AuditRecord(Object message, String messageType, String dateTime, String traceId) {
+    }
+}
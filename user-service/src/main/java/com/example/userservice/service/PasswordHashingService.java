@@ -0,0 +1,96 @@
+package com.example.userservice.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Runs BCrypt hashing and verification on a dedicated pool sized to the CPU count, so a login or
+ * registration storm cannot occupy the request threads with CPU-bound work. The pool's queue is
+ * bounded: once it is full, new work is rejected with {@link RejectedExecutionException}, which the
+ * controller reports as 429 so clients back off instead of piling up behind the hashing backlog.
+ */
+@Service
+@Slf4j
+public class PasswordHashingService implements MeterBinder {
+    
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final int strength;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+    
+    public PasswordHashingService(BCryptPasswordEncoder passwordEncoder,
+                                  @Value("${security.bcrypt.strength:10}") int strength,
+                                  @Value("${security.bcrypt.pool-size:0}") int poolSize,
+                                  @Value("${security.bcrypt.queue-capacity:100}") int queueCapacity) {
+        this.passwordEncoder = passwordEncoder;
+        this.strength = strength;
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("password-hashing-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+    
+    public CompletableFuture<String> hash(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+    
+    public CompletableFuture<Boolean> matches(String rawPassword, String encodedPassword) {
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+    
+    /**
+     * Whether a stored hash was produced with a different cost than the configured one,
+     * in either direction, so the cost can be raised or lowered by rehashing on login.
+     */
+    public boolean needsRehash(String encodedPassword) {
+        // BCrypt hashes look like $2a$10$<salt+hash>, the cost being the two digits after the version
+        if (encodedPassword == null || encodedPassword.length() < 7 || encodedPassword.charAt(0) != '$') {
+            return false;
+        }
+        try {
+            return Integer.parseInt(encodedPassword.substring(4, 6)) != strength;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+    
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "password.hashing", List.of()).bindTo(registry);
+        FunctionCounter.builder("password.hashing.rejected", rejected, AtomicLong::get)
+                .description("Password hashing requests rejected because the queue was full")
+                .register(registry);
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+    
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("Password hashing queue full ({} queued)", executor.getQueue().size());
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -5,16 +5,12 @@ import com.example.userservice.dto.UserRegistrationRequest;
 import com.example.userservice.dto.UserResponse;
 import com.example.userservice.model.User;
 import com.example.userservice.repository.UserRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
-import java.time.Instant;
-import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
@@ -22,11 +18,17 @@ import java.util.UUID;
 public class UserService {
     
     private final UserRepository userRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final PasswordHashingService passwordHashingService;
+    // Boot's general-purpose executor (virtual threads when enabled): runs the database work that
+    // follows a hash, so the CPU-sized hashing pool never waits on the database
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final AuditLogPublisher auditLogPublisher;
     
-    public UserResponse registerUser(UserRegistrationRequest request) {
+    /**
+     * Registers a user. The password is hashed on the password hashing pool, and the user is
+     * saved on the application task executor once the hash is ready.
+     */
+    public CompletableFuture<UserResponse> registerUser(UserRegistrationRequest request) {
         log.info("Registering new user: {}", request.getUsername());
         
         // Check if username or email already exists
@@ -34,37 +36,64 @@ public class UserService {
             throw new RuntimeException("Username or email already exists");
         }
         
-        // Create new user
-        User user = new User();
-        user.setUsername(request.getUsername());
-        user.setPassword(request.getPassword()); // Will be hashed by @PrePersist
-        user.setEmail(request.getEmail());
-        user.setFirstName(request.getFirstName());
-        user.setLastName(request.getLastName());
-        
-        User savedUser = userRepository.save(user);
-        
-        return UserResponse.builder()
-                .userId(savedUser.getUserId())
-                .username(savedUser.getUsername())
-                .message("User registered successfully.")
-                .build();
+        return passwordHashingService.hash(request.getPassword()).thenApplyAsync(passwordHash -> {
+            // Create new user
+            User user = new User();
+            user.setUsername(request.getUsername());
+            user.setPassword(passwordHash);
+            user.setEmail(request.getEmail());
+            user.setFirstName(request.getFirstName());
+            user.setLastName(request.getLastName());
+            
+            User savedUser = userRepository.save(user);
+            
+            return UserResponse.builder()
+                    .userId(savedUser.getUserId())
+                    .username(savedUser.getUsername())
+                    .message("User registered successfully.")
+                    .build();
+        }, applicationTaskExecutor);
     }
     
-    public UserResponse loginUser(UserLoginRequest request) {
+    /**
+     * Verifies the credentials on the password hashing pool. A stored hash with a different cost
+     * than the configured one is replaced in the background once the password has been verified.
+     */
+    public CompletableFuture<UserResponse> loginUser(UserLoginRequest request) {
         log.info("User login attempt: {}", request.getUsername());
         
         User user = userRepository.findByUsername(request.getUsername())
                 .orElseThrow(() -> new RuntimeException("Invalid username or password"));
         
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
-            throw new RuntimeException("Invalid username or password");
-        }
-        
-        return UserResponse.builder()
-                .userId(user.getUserId())
-                .username(user.getUsername())
-                .build();
+        return passwordHashingService.matches(request.getPassword(), user.getPassword()).thenApply(matched -> {
+            if (!matched) {
+                throw new RuntimeException("Invalid username or password");
+            }
+            
+            if (passwordHashingService.needsRehash(user.getPassword())) {
+                rehashPassword(user, request.getPassword());
+            }
+            
+            return UserResponse.builder()
+                    .userId(user.getUserId())
+                    .username(user.getUsername())
+                    .build();
+        });
+    }
+    
+    private void rehashPassword(User user, String rawPassword) {
+        // Not awaited: the login response does not wait for the new hash, and a rehash that is
+        // rejected or fails is simply retried on the next login
+        passwordHashingService.hash(rawPassword)
+                .thenAcceptAsync(newHash -> {
+                    if (userRepository.updatePasswordHash(user.getUserId(), user.getPassword(), newHash) == 1) {
+                        log.info("Password rehashed for user: {}", user.getUsername());
+                    }
+                }, applicationTaskExecutor)
+                .exceptionally(e -> {
+                    log.warn("Password rehash skipped for user {}: {}", user.getUsername(), e.getMessage());
+                    return null;
+                });
     }
     
     public UserResponse getUserProfile(UUID userId) {
@@ -81,27 +110,7 @@ public class UserService {
                 .lastName(user.getLastName())
                 .build();
     }
-    public void sendLog(String message, String messageType) {
-        Map<String, Object> payload = Map.of(
-                "message", message,
-                "messageType", messageType,
-                "dateTime", Instant.now().toString());
-
-        try {
-            String json = new ObjectMapper().writeValueAsString(payload);
-            kafkaTemplate.send("logging-topic", json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
-    }
-    public void  sendLog(Object json,String messageType) {
-        try {
-            String flattenJSON = objectMapper.writeValueAsString(json);
-            log.info("Sending log to Kafka: {}", flattenJSON);
-            sendLog(flattenJSON, messageType);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-        }
-
+    public void sendLog(Object json, String messageType) {
+        auditLogPublisher.publish(json, messageType);
     }
 } 
\ No newline at end of file
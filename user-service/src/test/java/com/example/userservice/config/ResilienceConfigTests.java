@@ -0,0 +1,196 @@
+package com.example.userservice.config;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Fault injection for the shared inter-service client setup: the real {@link WebClientConfig} and
+ * {@link ResilienceConfig} beans call a local stub server that fails, stalls or answers 4xx, and
+ * the tests check that the circuit breaker opens (and stops calling the server) and that the
+ * bulkhead rejects calls beyond its limit.
+ */
+class ResilienceConfigTests {
+    
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(WebClientConfig.class, ResilienceConfig.class)
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean(WebClient.Builder.class, WebClient::builder)
+            .withPropertyValues(
+                    "resilience.circuit-breaker.sliding-window-size=4",
+                    "resilience.circuit-breaker.minimum-number-of-calls=4",
+                    "resilience.circuit-breaker.failure-rate-threshold=50",
+                    "resilience.circuit-breaker.slow-call-rate-threshold=50",
+                    "resilience.circuit-breaker.slow-call-duration-threshold=100ms",
+                    "resilience.circuit-breaker.wait-duration-in-open-state=1m",
+                    "resilience.bulkhead.max-concurrent-calls=2",
+                    "resilience.bulkhead.max-wait-duration=0ms");
+    
+    private final AtomicInteger hits = new AtomicInteger();
+    private final CountDownLatch stalledArrived = new CountDownLatch(2);
+    private final CountDownLatch releaseStalled = new CountDownLatch(1);
+    private HttpServer server;
+    private String baseUrl;
+    
+    @BeforeEach
+    void startStubServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/error", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 503);
+        });
+        server.createContext("/missing", exchange -> {
+            hits.incrementAndGet();
+            respond(exchange, 404);
+        });
+        server.createContext("/slow", exchange -> {
+            hits.incrementAndGet();
+            sleep(300);
+            respond(exchange, 200);
+        });
+        server.createContext("/stalled", exchange -> {
+            hits.incrementAndGet();
+            stalledArrived.countDown();
+            try {
+                releaseStalled.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200);
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+    
+    @AfterEach
+    void stopStubServer() {
+        releaseStalled.countDown();
+        server.stop(0);
+    }
+    
+    @Test
+    void serverErrorsOpenTheCircuitBreaker() {
+        contextRunner.run(context -> {
+            WebClient webClient = context.getBean(WebClient.class);
+            CircuitBreaker circuitBreaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("downstream");
+            
+            for (int i = 0; i < 4; i++) {
+                Mono<String> call = call(webClient, "/error", circuitBreaker);
+                assertThrows(WebClientResponseException.ServiceUnavailable.class, call::block);
+            }
+            assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+            
+            // Open: calls fail fast without reaching the server
+            Mono<String> rejected = call(webClient, "/error", circuitBreaker);
+            assertThrows(CallNotPermittedException.class, rejected::block);
+            assertEquals(4, hits.get());
+            assertEquals(1.0, context.getBean(MeterRegistry.class)
+                    .counter("resilience4j.circuitbreaker.transitions",
+                            "name", "downstream", "transition", "CLOSED_TO_OPEN").count());
+        });
+    }
+    
+    @Test
+    void slowResponsesOpenTheCircuitBreaker() {
+        contextRunner.run(context -> {
+            WebClient webClient = context.getBean(WebClient.class);
+            CircuitBreaker circuitBreaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("downstream");
+            
+            for (int i = 0; i < 4; i++) {
+                assertEquals("ok", call(webClient, "/slow", circuitBreaker).block());
+            }
+            
+            assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        });
+    }
+    
+    @Test
+    void clientErrorsDoNotOpenTheCircuitBreaker() {
+        contextRunner.run(context -> {
+            WebClient webClient = context.getBean(WebClient.class);
+            CircuitBreaker circuitBreaker = context.getBean(CircuitBreakerRegistry.class).circuitBreaker("downstream");
+            
+            for (int i = 0; i < 8; i++) {
+                Mono<String> call = call(webClient, "/missing", circuitBreaker);
+                assertThrows(WebClientResponseException.NotFound.class, call::block);
+            }
+            
+            assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        });
+    }
+    
+    @Test
+    void bulkheadRejectsCallsBeyondItsLimit() {
+        contextRunner.run(context -> {
+            WebClient webClient = context.getBean(WebClient.class);
+            Bulkhead bulkhead = context.getBean(BulkheadRegistry.class).bulkhead("downstream");
+            Mono<String> stalled = webClient.get().uri(baseUrl + "/stalled")
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .transformDeferred(BulkheadOperator.of(bulkhead));
+            
+            Disposable first = stalled.subscribe();
+            Disposable second = stalled.subscribe();
+            assertTrue(stalledArrived.await(5, TimeUnit.SECONDS), "stalled calls did not reach the server");
+            
+            assertThrows(BulkheadFullException.class, stalled::block);
+            assertEquals(2, hits.get());
+            
+            releaseStalled.countDown();
+            first.dispose();
+            second.dispose();
+        });
+    }
+    
+    private Mono<String> call(WebClient webClient, String path, CircuitBreaker circuitBreaker) {
+        return webClient.get().uri(baseUrl + path)
+                .retrieve()
+                .bodyToMono(String.class)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+    
+    private static void respond(HttpExchange exchange, int status) throws IOException {
+        byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+        exchange.close();
+    }
+    
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}